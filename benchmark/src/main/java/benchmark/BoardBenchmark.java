@@ -0,0 +1,37 @@
+package benchmark;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessBoard hashCode and equals on two separately built starting boards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    private final ChessBoard board = new ChessBoard();
+    private final ChessBoard other = new ChessBoard();
+
+    @Setup
+    public void setup() {
+        board.resetBoard();
+        other.resetBoard();
+    }
+
+    @Benchmark
+    public int hashCodeBoard() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsBoard() {
+        return board.equals(other);
+    }
+}
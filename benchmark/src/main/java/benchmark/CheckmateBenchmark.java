@@ -0,0 +1,47 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * isInCheckmate on a position that is mate (fool's mate) and on one that is not
+ * (the starting position).
+ * <p>
+ * A game remembers its status until the position changes, so each call asks a
+ * fresh copy, which starts without a status. Copies are O(1) and share the board
+ * until one of them writes to it, so the copy adds little to the time measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckmateBenchmark {
+
+    private final ChessGame start = new ChessGame();
+    private final ChessGame foolsMate = new ChessGame();
+
+    @Setup
+    public void setup() throws InvalidMoveException {
+        foolsMate.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        foolsMate.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        foolsMate.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        foolsMate.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+    }
+
+    @Benchmark
+    public boolean checkmate() {
+        return foolsMate.copy().isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+
+    @Benchmark
+    public boolean notCheckmate() {
+        return start.copy().isInCheckmate(ChessGame.TeamColor.WHITE);
+    }
+}
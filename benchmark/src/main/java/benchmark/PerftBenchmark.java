@@ -0,0 +1,73 @@
+package benchmark;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.ParallelPerft;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft from the standard perft suite positions: the starting position, Kiwipete
+ * (castling, en passant and pins) and positions 3, 4 and 5, which stress en
+ * passant, promotions and checks. The deepest Kiwipete runs take seconds per
+ * operation; narrow the grid with e.g. {@code -p position=start -p depth=5}. The
+ * nodes counter reports leaf nodes per
+ * second alongside the usual operations per second. The parallel version runs on
+ * the common fork/join pool without a hash table, so its node rate compares
+ * directly with the single-threaded one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+
+    private static final Map<String, String> POSITIONS = Map.of(
+            "start", Fen.STARTING_POSITION,
+            "kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "position3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+
+    @Param({"start", "kiwipete", "position3", "position4", "position5"})
+    public String position;
+
+    @Param({"3", "4", "5"})
+    public int depth;
+
+    private ChessGame game;
+    private ParallelPerft parallel;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        game = Fen.parse(POSITIONS.get(position));
+        parallel = new ParallelPerft(ForkJoinPool.commonPool(), 0);
+    }
+
+    @Benchmark
+    public void perft(Nodes counter) {
+        counter.nodes += Perft.perft(game, depth);
+    }
+
+    @Benchmark
+    public void parallelPerft(Nodes counter) {
+        counter.nodes += parallel.perft(game, depth);
+    }
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation for a single piece standing in the middle of a starting board,
+ * through both the Collection API and the packed int[] API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private final ChessBoard board = new ChessBoard();
+    private final ChessPosition position = new ChessPosition(4, 4);
+    private final int square = 3 * 8 + 3;
+    private final int[] buffer = new int[ChessPiece.MAX_PIECE_MOVES];
+    private ChessPiece piece;
+
+    @Setup
+    public void setup() {
+        board.resetBoard();
+        piece = new ChessPiece(ChessGame.TeamColor.WHITE, type);
+        board.addPiece(position, piece);
+    }
+
+    @Benchmark
+    public void collection(Blackhole blackhole) {
+        blackhole.consume(piece.pieceMoves(board, position));
+    }
+
+    @Benchmark
+    public int packed() {
+        return piece.pieceMoves(board, square, buffer, 0);
+    }
+}
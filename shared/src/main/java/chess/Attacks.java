@@ -0,0 +1,227 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Precomputed attack sets, indexed by the square numbering in {@link Bitboards}.
+ * <p>
+ * Knights, kings and pawns use a plain 64-entry table per piece (and per color for
+ * pawns), so a lookup needs no bounds checks.
+ * <p>
+ * Sliding pieces use magic bitboards: the blockers on a piece's lines are multiplied
+ * by a per-square constant so the high bits of the product form a perfect index into
+ * a table of attack sets. The constants are found once at class load with a fixed
+ * seed, so every run builds the same tables.
+ */
+final class Attacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, -1}, {-1, 1}, {1, -1}};
+    private static final int[][] KING_STEPS = {{1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}};
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {-1, 2}, {1, -2}, {-1, -2}};
+    private static final int[][] WHITE_PAWN_STEPS = {{1, -1}, {1, 1}};
+    private static final int[][] BLACK_PAWN_STEPS = {{-1, -1}, {-1, 1}};
+
+    private static final long[] KING = new long[64];
+    private static final long[] KNIGHT = new long[64];
+    // indexed by TeamColor ordinal, then square
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    // squares strictly between two squares on a shared line, and the whole line through them
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    static {
+        SplittableRandom random = new SplittableRandom(240L);
+        for (int square = 0; square < 64; square++) {
+            KING[square] = steps(square, KING_STEPS);
+            KNIGHT[square] = steps(square, KNIGHT_STEPS);
+            PAWN[ChessGame.TeamColor.WHITE.ordinal()][square] = steps(square, WHITE_PAWN_STEPS);
+            PAWN[ChessGame.TeamColor.BLACK.ordinal()][square] = steps(square, BLACK_PAWN_STEPS);
+            initMagic(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE, random);
+            initMagic(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE, random);
+        }
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                initLine(a, b);
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    static long king(int square) {
+        return KING[square];
+    }
+
+    static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * @return the two squares (fewer on the edge columns) a pawn of the given team
+     * on the given square could capture on
+     */
+    static long pawn(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * @return the squares a rook on the given square attacks, stopping at (and including)
+     * the first occupied square in each direction
+     */
+    static long rook(int square, long occupied) {
+        long index = ((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square];
+        return ROOK_TABLE[square][(int) index];
+    }
+
+    /**
+     * @return the squares a bishop on the given square attacks, stopping at (and including)
+     * the first occupied square in each direction
+     */
+    static long bishop(int square, long occupied) {
+        long index = ((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square];
+        return BISHOP_TABLE[square][(int) index];
+    }
+
+    static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares that share a row, column or
+     * diagonal, or an empty set if they do not
+     */
+    static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @return every square on the row, column or diagonal through both squares,
+     * edge to edge, or an empty set if they do not share one
+     */
+    static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    private static void initLine(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        long bitB = Bitboards.bit(b);
+        int[][][] groups = {ROOK_DIRECTIONS, BISHOP_DIRECTIONS};
+        for (int[][] directions : groups) {
+            if ((slide(a, 0L, directions) & bitB) != 0) {
+                BETWEEN[a][b] = slide(a, bitB, directions) & slide(b, Bitboards.bit(a), directions);
+                LINE[a][b] = (slide(a, 0L, directions) & slide(b, 0L, directions))
+                        | Bitboards.bit(a) | bitB;
+            }
+        }
+    }
+
+    private static long steps(int square, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = Bitboards.row(square) + step[0];
+            int col = Bitboards.column(square) + step[1];
+            if (1 <= row && row <= 8 && 1 <= col && col <= 8) {
+                attacks |= Bitboards.bit(Bitboards.square(row, col));
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Walks each ray from the square. Only used to fill the tables.
+     */
+    private static long slide(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = Bitboards.row(square) + direction[0];
+            int col = Bitboards.column(square) + direction[1];
+            while (1 <= row && row <= 8 && 1 <= col && col <= 8) {
+                long bit = Bitboards.bit(Bitboards.square(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {break;}
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * The squares whose occupancy matters for a slider: every square it can reach on
+     * an empty board except the last one on each ray, which never blocks anything.
+     */
+    private static long blockerMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int row = Bitboards.row(square) + direction[0];
+            int col = Bitboards.column(square) + direction[1];
+            while (1 <= row + direction[0] && row + direction[0] <= 8
+                    && 1 <= col + direction[1] && col + direction[1] <= 8) {
+                mask |= Bitboards.bit(Bitboards.square(row, col));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initMagic(int square, int[][] directions, long[] masks, long[] magics, int[] shifts,
+                                  long[][] tables, SplittableRandom random) {
+        long mask = blockerMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        // every subset of the mask, paired with the attack set it produces
+        long[] blockers = new long[size];
+        long[] attacks = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            blockers[i] = subset;
+            attacks[i] = slide(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] table = new long[size];
+        int[] filledBy = new int[size];
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((blockers[i] * magic) >>> (64 - bits));
+                if (filledBy[index] != attempt) {
+                    filledBy[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                masks[square] = mask;
+                magics[square] = magic;
+                shifts[square] = 64 - bits;
+                tables[square] = table;
+                return;
+            }
+        }
+    }
+}
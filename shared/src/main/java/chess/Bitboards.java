@@ -0,0 +1,66 @@
+package chess;
+
+/**
+ * Helpers for the 64-bit board sets kept by {@link ChessBoard}.
+ * <p>
+ * Squares are numbered 0..63 starting at row 1, column 1 (bit 0) and running
+ * along each row, so row 8 column 8 is bit 63.
+ */
+final class Bitboards {
+
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = FILE_A << 7;
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_8 = RANK_1 << 56;
+
+    private Bitboards() {
+    }
+
+    /**
+     * @return the square index for a 1-based row and column
+     */
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return true if the position's row and column are both within 1..8
+     */
+    static boolean onBoard(ChessPosition position) {
+        return 1 <= position.getRow() && position.getRow() <= 8
+                && 1 <= position.getColumn() && position.getColumn() <= 8;
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Index of a piece within {@link ChessBoard}'s piece sets: six types per color.
+     */
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static int pieceIndex(ChessPiece piece) {
+        return pieceIndex(piece.getTeamColor(), piece.getPieceType());
+    }
+}
@@ -0,0 +1,92 @@
+package chess;
+
+/**
+ * The piece placement of a board packed into 32 bytes: four bits per square
+ * holding 0 for empty or the piece index + 1, sixteen squares per long starting
+ * from row 1 column 1. Two boards with the same pieces always give equal keys,
+ * so this works as a compact cache key or storage form.
+ */
+public final class BoardKey {
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+
+    BoardKey(long[] words) {
+        word0 = words[0];
+        word1 = words[1];
+        word2 = words[2];
+        word3 = words[3];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BoardKey that = (BoardKey) o;
+        return word0 == that.word0 && word1 == that.word1 && word2 == that.word2 && word3 == that.word3;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mix(word0, word1, word2, word3));
+    }
+
+    /**
+     * @return the key as 32 bytes, lowest squares first
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[32];
+        long[] words = {word0, word1, word2, word3};
+        for (int i = 0; i < 32; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) * 8));
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads a key written by {@link #toByteArray()}.
+     *
+     * @throws IllegalArgumentException if there are not exactly 32 bytes
+     */
+    public static BoardKey fromByteArray(byte[] bytes) {
+        if (bytes.length != 32) {
+            throw new IllegalArgumentException("A board key is 32 bytes, not " + bytes.length);
+        }
+        long[] words = new long[4];
+        for (int i = 0; i < 32; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) * 8);
+        }
+        return new BoardKey(words);
+    }
+
+    /**
+     * @return a new board holding the pieces this key describes
+     */
+    public ChessBoard toBoard() {
+        ChessBoard board = new ChessBoard();
+        long[] words = {word0, word1, word2, word3};
+        for (int square = 0; square < 64; square++) {
+            int code = (int) (words[square >>> 4] >>> ((square & 15) * 4)) & 15;
+            if (code != ChessBoard.EMPTY) {
+                board.setCode(square, code);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Hashes the four packed words: multiply-xorshift rounds so that every nibble
+     * affects every bit of the result.
+     */
+    static long mix(long word0, long word1, long word2, long word3) {
+        long h = word0 * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 32) ^ word1) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 29) ^ word2) * 0x94D049BB133111EBL;
+        h = (h ^ (h >>> 32) ^ word3) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 31);
+    }
+}
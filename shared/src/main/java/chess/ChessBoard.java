@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -11,12 +10,88 @@ import java.util.Objects;
  */
 public class ChessBoard {
 
-    ChessPiece[][]  board = new ChessPiece[8][8];
+    // mailbox codes: 0 for an empty square, Bitboards.pieceIndex + 1 for a piece
+    static final byte EMPTY = 0;
+    static final byte OFF_BOARD = -1;
+
+    // the 8x8 board framed by two sentinel rows above and below and one sentinel
+    // column each side, so stepping off the board always lands on OFF_BOARD
+    private static final byte[] EMPTY_MAILBOX = new byte[120];
+    // mailbox index of each square index
+    static final int[] MAILBOX = new int[64];
+
+    static {
+        Arrays.fill(EMPTY_MAILBOX, OFF_BOARD);
+        for (int square = 0; square < 64; square++) {
+            MAILBOX[square] = mailboxIndex(Bitboards.row(square), Bitboards.column(square));
+            EMPTY_MAILBOX[MAILBOX[square]] = EMPTY;
+        }
+    }
+
+    byte[] mailbox = EMPTY_MAILBOX.clone();
+
+    // bitboard view of the same position, kept in step with the mailbox
+    // pieceSets is indexed by Bitboards.pieceIndex, colorSets by TeamColor ordinal
+    long[] pieceSets = new long[12];
+    long[] colorSets = new long[2];
+    long occupied;
+    // square of each team's king, -1 if it has none, indexed by TeamColor ordinal
+    int[] kingSquares = {-1, -1};
+    // Zobrist key of the pieces alone, see getZobristKey()
+    long zobristKey;
+    // each square's mailbox code in four bits, sixteen squares per long, see BoardKey
+    long[] packed = new long[4];
+    // running sums over the pieces of PieceSquareTables, see getEvaluation()
+    int midgameScore;
+    int endgameScore;
+    int phase;
+
+    // true while the arrays above may be shared with a copy, see copy()
+    private boolean shared;
 
     public ChessBoard() {
 
     }
 
+    private ChessBoard(ChessBoard other) {
+        mailbox = other.mailbox;
+        pieceSets = other.pieceSets;
+        colorSets = other.colorSets;
+        kingSquares = other.kingSquares;
+        packed = other.packed;
+        occupied = other.occupied;
+        zobristKey = other.zobristKey;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+        shared = true;
+    }
+
+    /**
+     * Makes a copy of this board in O(1). The copy shares this board's storage
+     * until either board is changed, and the first change to each board copies
+     * the storage (a few small arrays) before writing, so neither ever sees the
+     * other's changes.
+     * <p>
+     * Take copies on the thread that is changing the board; the copy can then be
+     * read from any thread.
+     *
+     * @return an independent board with the same pieces
+     */
+    public ChessBoard copy() {
+        shared = true;
+        return new ChessBoard(this);
+    }
+
+    private void unshare() {
+        mailbox = mailbox.clone();
+        pieceSets = pieceSets.clone();
+        colorSets = colorSets.clone();
+        kingSquares = kingSquares.clone();
+        packed = packed.clone();
+        shared = false;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -24,22 +99,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        for (int i = 0; i < 8; i++) {
-            for  (int j = 0; j < 8; j++) {
-                ChessPiece a = board[i][j];
-                ChessPiece b = that.board[i][j];
-                if (a == null && b == null) continue;   // both empty → equal
-                if (a == null || b == null) return false;
-                if (!a.equals(b)) {return false;}
-            }
-        }
-        return true;
+        return Arrays.equals(packed, that.packed);
     }
 
     @Override
     public int hashCode() {
-        //return java.util.Arrays.deepHashCode(board);
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(zobristKey);
     }
 
 
@@ -51,7 +116,7 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow()-1][position.getColumn()-1] = piece;
+        setSquare(position.getRow()-1, position.getColumn()-1, piece);
     }
 
     /**
@@ -62,10 +127,224 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        if (board[position.getRow()-1][position.getColumn()-1] == null) {
+        byte code = mailbox[mailboxIndex(position.getRow(), position.getColumn())];
+        // one compare covers both empty squares and positions just off the edge
+        if (code <= EMPTY) {
             return null;
         }
-        return board[position.getRow()-1][position.getColumn()-1];
+        return ChessPiece.byIndex(code - 1);
+    }
+
+    /**
+     * @return the index into the mailbox of a 1-based row and column
+     */
+    static int mailboxIndex(int row, int col) {
+        return (row + 1) * 10 + col;
+    }
+
+    /**
+     * Gets the Zobrist key of the pieces on this board. It is kept up to date as
+     * pieces are added, so reading it is O(1). Turn, castling and en passant state
+     * belong to the game and are folded in by {@link ChessGame#getPositionKey()}.
+     *
+     * @return 64-bit hash of the piece placement
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Gets the piece placement packed into 32 bytes. The packed form is kept in
+     * step with the board, so this only copies four longs.
+     *
+     * @return a compact value that is equal for boards with the same pieces
+     */
+    public BoardKey getBoardKey() {
+        return new BoardKey(packed);
+    }
+
+    /**
+     * Gets a static evaluation of the pieces: material plus a bonus or penalty for
+     * each piece's square, blended between middlegame and endgame values by
+     * {@link #getPhase()}. The middlegame and endgame sums are kept up to date as
+     * pieces are added and removed, so reading this is O(1) and making or taking
+     * back a move updates it for free.
+     *
+     * @return the score in centipawns, positive when white is better
+     */
+    public int getEvaluation() {
+        int weight = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (midgameScore * weight + endgameScore * (PieceSquareTables.MAX_PHASE - weight))
+                / PieceSquareTables.MAX_PHASE;
+    }
+
+    /**
+     * Gets how far the game is from an endgame, from the queens, rooks and minor
+     * pieces still on the board: 24 with every piece (more after promotions),
+     * 0 with only kings and pawns.
+     *
+     * @return the sum of 4 per queen, 2 per rook and 1 per bishop or knight
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return the set of squares holding the given piece, one bit per square with
+     * squares numbered as in {@link PackedMove}
+     */
+    public long getPieceSet(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceSets[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return the set of squares holding any piece of the given team
+     */
+    public long getColorSet(ChessGame.TeamColor color) {
+        return colorSets[color.ordinal()];
+    }
+
+    /**
+     * Gets where a team's king stands. The square is cached and updated as pieces
+     * move, so this does not search the board.
+     *
+     * @param color the team whose king to find
+     * @return the king's position, or null if the team has no king on the board
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        return square < 0 ? null : ChessPosition.of(square);
+    }
+
+    /**
+     * @param color the team to count
+     * @return how many pieces the team has on the board
+     */
+    public int getPieceCount(ChessGame.TeamColor color) {
+        return Long.bitCount(colorSets[color.ordinal()]);
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square, whether or not
+     * the square is empty. Probes outward from the square and stops at the first
+     * attacker found, so no moves are generated.
+     *
+     * @param position the square to test
+     * @param by       the attacking team
+     * @return True if a piece of that team could capture on the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor by) {
+        return isAttacked(Bitboards.square(position), by, occupied);
+    }
+
+    /**
+     * Same as {@link #isSquareAttacked}, with sliders seeing through every square
+     * missing from the given occupancy (used to lift a moving king off the board).
+     */
+    boolean isAttacked(int square, ChessGame.TeamColor by, long occupied) {
+        // leapers first: a single table lookup each
+        if ((Attacks.knight(square) & getPieceSet(by, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((Attacks.pawn(ChessGame.opponent(by), square) & getPieceSet(by, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+        if ((Attacks.king(square) & getPieceSet(by, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = getPieceSet(by, ChessPiece.PieceType.QUEEN);
+        long rooks = getPieceSet(by, ChessPiece.PieceType.ROOK) | queens;
+        if (rooks != 0 && (Attacks.rook(square, occupied) & rooks) != 0) {
+            return true;
+        }
+        long bishops = getPieceSet(by, ChessPiece.PieceType.BISHOP) | queens;
+        return bishops != 0 && (Attacks.bishop(square, occupied) & bishops) != 0;
+    }
+
+    /**
+     * @return the piece on a square index numbered as in {@link PackedMove}, or null
+     */
+    public ChessPiece pieceAt(int square) {
+        byte code = mailbox[MAILBOX[square]];
+        return code == EMPTY ? null : ChessPiece.byIndex(code - 1);
+    }
+
+    /**
+     * @return the mailbox code on a square index: {@link #EMPTY} or piece index + 1
+     */
+    int codeAt(int square) {
+        return mailbox[MAILBOX[square]];
+    }
+
+    void setPiece(int square, ChessPiece piece) {
+        setCode(square, piece == null ? EMPTY : Bitboards.pieceIndex(piece) + 1);
+    }
+
+    private void setSquare(int i, int j, ChessPiece piece) {
+        setPiece(i * 8 + j, piece);
+    }
+
+    /**
+     * Puts a mailbox code on a square, keeping the bitboards, key and evaluation in step.
+     */
+    void setCode(int square, int code) {
+        if (shared) {
+            unshare();
+        }
+        long bit = Bitboards.bit(square);
+        int index = MAILBOX[square];
+        int old = mailbox[index];
+        if (old != EMPTY) {
+            zobristKey ^= Zobrist.PIECES[old - 1][square];
+            midgameScore -= PieceSquareTables.MIDGAME[old - 1][square];
+            endgameScore -= PieceSquareTables.ENDGAME[old - 1][square];
+            phase -= PieceSquareTables.PHASE[old - 1];
+            pieceSets[old - 1] &= ~bit;
+            colorSets[(old - 1) / 6] &= ~bit;
+            occupied &= ~bit;
+            if (isKingCode(old)) {
+                long kings = pieceSets[old - 1];
+                kingSquares[(old - 1) / 6] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+            }
+        }
+        mailbox[index] = (byte) code;
+        int shift = (square & 15) * 4;
+        packed[square >>> 4] = (packed[square >>> 4] & ~(15L << shift)) | ((long) code << shift);
+        if (code != EMPTY) {
+            zobristKey ^= Zobrist.PIECES[code - 1][square];
+            midgameScore += PieceSquareTables.MIDGAME[code - 1][square];
+            endgameScore += PieceSquareTables.ENDGAME[code - 1][square];
+            phase += PieceSquareTables.PHASE[code - 1];
+            pieceSets[code - 1] |= bit;
+            colorSets[(code - 1) / 6] |= bit;
+            occupied |= bit;
+            if (isKingCode(code)) {
+                kingSquares[(code - 1) / 6] = square;
+            }
+        }
+    }
+
+    private static boolean isKingCode(int code) {
+        return (code - 1) % 6 == ChessPiece.PieceType.KING.ordinal();
+    }
+
+    /**
+     * Removes every piece, reusing this board's arrays.
+     */
+    void clear() {
+        if (shared) {
+            unshare();
+        }
+        System.arraycopy(EMPTY_MAILBOX, 0, mailbox, 0, mailbox.length);
+        Arrays.fill(pieceSets, 0L);
+        Arrays.fill(colorSets, 0L);
+        occupied = 0L;
+        zobristKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        Arrays.fill(kingSquares, -1);
+        Arrays.fill(packed, 0L);
     }
 
     /**
@@ -74,42 +353,38 @@ public class ChessBoard {
      */
     public void resetBoard() {
         //possibly clear the board first
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                board[i][j] = null;
-            }
-        }
+        clear();
 
         for (int j = 0; j < 8; j++) {
-            board[1][j] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-            board[6][j] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+            setSquare(1, j, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            setSquare(6, j, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         // Rooks
-        board[0][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        board[0][7] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        board[7][0] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        board[7][7] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        setSquare(0, 0, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        setSquare(0, 7, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        setSquare(7, 0, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        setSquare(7, 7, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
 
         // Knights
-        board[0][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        board[0][6] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        board[7][1] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        board[7][6] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+        setSquare(0, 1, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        setSquare(0, 6, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        setSquare(7, 1, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        setSquare(7, 6, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
 
         // Bishops
-        board[0][2] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        board[0][5] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        board[7][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        board[7][5] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        setSquare(0, 2, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        setSquare(0, 5, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        setSquare(7, 2, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        setSquare(7, 5, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
 
         // Queens
-        board[0][3] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        board[7][3] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        setSquare(0, 3, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        setSquare(7, 3, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
 
         // Kings
-        board[0][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-        board[7][4] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+        setSquare(0, 4, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        setSquare(7, 4, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
 
 
 //
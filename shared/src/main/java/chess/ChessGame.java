@@ -1,5 +1,6 @@
 package chess;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -10,15 +11,115 @@ import java.util.Collection;
  */
 public class ChessGame {
 
+    /**
+     * Size a buffer handed to {@link #generateMoves(int[], int)} needs past its count.
+     */
+    public static final int MAX_MOVES = MoveGenerator.MAX_MOVES;
+
+    // castling rights bits
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+
+    // rights still held after a move touches a square, indexed by square
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, 15);
+        CASTLING_KEPT[Bitboards.square(1, 5)] = ~(WHITE_KINGSIDE | WHITE_QUEENSIDE) & 15;
+        CASTLING_KEPT[Bitboards.square(1, 8)] = ~WHITE_KINGSIDE & 15;
+        CASTLING_KEPT[Bitboards.square(1, 1)] = ~WHITE_QUEENSIDE & 15;
+        CASTLING_KEPT[Bitboards.square(8, 5)] = ~(BLACK_KINGSIDE | BLACK_QUEENSIDE) & 15;
+        CASTLING_KEPT[Bitboards.square(8, 8)] = ~BLACK_KINGSIDE & 15;
+        CASTLING_KEPT[Bitboards.square(8, 1)] = ~BLACK_QUEENSIDE & 15;
+    }
+
+    // undo record layout, one long per move made; piece fields hold mailbox codes
+    private static final long MOVE_MASK = 0xFFFF;
+    private static final int CASTLING_SHIFT = 16;
+    private static final int EN_PASSANT_SHIFT = 20;
+    private static final int TURN_SHIFT = 27;
+    private static final int MOVED_SHIFT = 28;
+    private static final int CAPTURED_SHIFT = 32;
+    private static final int HALFMOVE_SHIFT = 36;
+
+    // largest move counters a loaded position may have: the halfmove clock has to
+    // fit the undo record, and the full move number leaves room for later plies
+    static final int MAX_HALFMOVE_CLOCK = (1 << (64 - HALFMOVE_SHIFT)) - 1;
+    static final int MAX_FULLMOVE_NUMBER = Integer.MAX_VALUE / 4;
+
+    private ChessBoard board;
+    private TeamColor teamTurn;
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+    // plies played before the undo stack starts, for the full move number
+    private int startPly;
+
+    // status of the side to move, valid while the position key still matches
+    private GameStatus status;
+    private long statusKey;
+    // legal moves of positions seen before, possibly shared with other games; off when null
+    private PositionCache positionCache;
+
+    // undo stack: packed state and the position key before each move
+    private long[] undoStates = new long[64];
+    private long[] undoKeys = new long[64];
+    private int undoCount;
+
     public ChessGame() {
+        board = new ChessBoard();
+        board.resetBoard();
+        teamTurn = TeamColor.WHITE;
+        castlingRights = castlingRightsFor(board);
+    }
+
+    private ChessGame(ChessGame other) {
+        board = other.board.copy();
+        teamTurn = other.teamTurn;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        startPly = other.startPly;
+        undoStates = other.undoStates.clone();
+        undoKeys = other.undoKeys.clone();
+        undoCount = other.undoCount;
+        positionCache = other.positionCache;
+    }
+
+    /**
+     * Makes an independent copy of this game, move history included, so moves
+     * can be made and taken back on the copy (on another thread, say) without
+     * touching this game. The board is copied with {@link ChessBoard#copy()}.
+     *
+     * @return a game in the same position
+     */
+    public ChessGame copy() {
+        return new ChessGame(this);
+    }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ChessGame that = (ChessGame) o;
+        return teamTurn == that.teamTurn && castlingRights == that.castlingRights
+                && enPassantSquare == that.enPassantSquare && board.equals(that.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getPositionKey());
     }
 
     /**
      * @return Which team's turn it is
      */
     public TeamColor getTeamTurn() {
-        throw new RuntimeException("Not implemented");
+        return teamTurn;
     }
 
     /**
@@ -27,7 +128,60 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        throw new RuntimeException("Not implemented");
+        teamTurn = team;
+    }
+
+    /**
+     * Gets the Zobrist key of the whole position: the board's piece key combined
+     * with the side to move, castling rights and en passant square. Equal positions
+     * always have equal keys.
+     *
+     * @return 64-bit hash of the current position
+     */
+    public long getPositionKey() {
+        long key = board.getZobristKey() ^ Zobrist.CASTLING[castlingRights];
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.SIDE;
+        }
+        if (enPassantSquare >= 0) {
+            key ^= Zobrist.EN_PASSANT[enPassantSquare & 7];
+        }
+        return key;
+    }
+
+    /**
+     * @return the cache of legal moves this game uses, or null if caching is off
+     */
+    public PositionCache getPositionCache() {
+        return positionCache;
+    }
+
+    /**
+     * Turns on caching of legal moves for this game. Caching is off by default;
+     * games (e.g. those of one server) only share results when they are given the
+     * same cache. Copies of this game use the same cache.
+     *
+     * @param cache the cache to use, or null to turn caching off
+     */
+    public void setPositionCache(PositionCache cache) {
+        positionCache = cache;
+    }
+
+    /**
+     * Gets check, checkmate and stalemate for the team to move from a single
+     * move generation pass. The result is kept until the position changes, so
+     * asking again after the same move costs nothing.
+     *
+     * @return the status of the team whose turn it is
+     */
+    public GameStatus evaluateStatus() {
+        long key = getPositionKey();
+        if (status == null || statusKey != key) {
+            PositionCache.Entry entry = sideToMove();
+            status = new GameStatus(teamTurn, entry.inCheck, entry.moves.length);
+            statusKey = key;
+        }
+        return status;
     }
 
     /**
@@ -46,7 +200,55 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        throw new RuntimeException("Not implemented");
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) {
+            return null;
+        }
+        int square = Bitboards.square(startPosition);
+        if (piece.getTeamColor() == teamTurn && positionCache != null) {
+            MoveList moves = new MoveList(ChessPiece.MAX_PIECE_MOVES);
+            for (int move : sideToMove().moves) {
+                if (PackedMove.from(move) == square) {
+                    moves.addPacked(move);
+                }
+            }
+            return moves;
+        }
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        return new MoveList(buffer, movesFrom(piece.getTeamColor(), square, buffer));
+    }
+
+    /**
+     * Generates the legal moves of the piece on one square only. The en passant
+     * square only counts for the team whose turn it is.
+     *
+     * @return the number of moves written to the start of the buffer
+     */
+    private int movesFrom(TeamColor color, int square, int[] buffer) {
+        int passed = color == teamTurn ? enPassantSquare : -1;
+        return MoveGenerator.legalMoves(board, color, castlingRights, passed, Bitboards.bit(square), buffer, 0);
+    }
+
+    /**
+     * Gets every legal move of the team whose turn it is
+     *
+     * @return the moves in generation order
+     */
+    public MoveList legalMoves() {
+        int[] moves = sideToMove().moves;
+        return new MoveList(moves, moves.length);
+    }
+
+    /**
+     * Writes every legal move of the team whose turn it is, castling and en passant
+     * included, into a caller-owned buffer without allocating.
+     *
+     * @param moves buffer with room for {@link #MAX_MOVES} entries past count
+     * @param count index of the first free slot in the buffer
+     * @return the new number of moves in the buffer, see {@link PackedMove}
+     */
+    public int generateMoves(int[] moves, int count) {
+        return MoveGenerator.legalMoves(board, teamTurn, castlingRights, enPassantSquare, -1L, moves, count);
     }
 
     /**
@@ -56,7 +258,292 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        throw new RuntimeException("Not implemented");
+        // squares off the board would pack onto real ones
+        if (!Bitboards.onBoard(move.getStartPosition()) || !Bitboards.onBoard(move.getEndPosition())) {
+            throw new InvalidMoveException("Move leaves the board: " + move);
+        }
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) {
+            throw new InvalidMoveException("No piece at " + move.getStartPosition());
+        }
+        if (piece.getTeamColor() != teamTurn) {
+            throw new InvalidMoveException("It is not " + piece.getTeamColor() + "'s turn");
+        }
+        int packed = PackedMove.of(move);
+        int[] legal;
+        int count;
+        if (positionCache != null) {
+            legal = sideToMove().moves;
+            count = legal.length;
+        } else {
+            legal = new int[MoveGenerator.MAX_MOVES];
+            count = movesFrom(teamTurn, PackedMove.from(packed), legal);
+        }
+        for (int i = 0; i < count; i++) {
+            if (legal[i] == packed) {
+                makeMove(packed);
+                return;
+            }
+        }
+        throw new InvalidMoveException("Illegal move " + move);
+    }
+
+    /**
+     * Applies a packed move in place without checking that it is legal, pushing
+     * what is needed to take it back with {@link #unmakeMove()}. The turn passes to
+     * the opponent of the piece that moved.
+     *
+     * @param move a pseudo-legal move, castling (the king moving two squares) or an
+     *             en passant capture, see {@link PackedMove}
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = board.codeAt(from);
+        int captured = board.codeAt(to);
+        ChessPiece piece = ChessPiece.byIndex(moved - 1);
+        pushUndo(move, moved, captured);
+        status = null;
+
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        board.setCode(from, ChessBoard.EMPTY);
+        board.setCode(to, promotion == null ? moved : Bitboards.pieceIndex(piece.getTeamColor(), promotion) + 1);
+
+        enPassantSquare = -1;
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+            halfmoveClock = 0;
+            if (isEnPassant(from, to, captured)) {
+                board.setCode(enPassantVictim(from, to), ChessBoard.EMPTY);
+            } else if (Math.abs(to - from) == 16) {
+                // only kept when a pawn could take it, so positions that differ by nothing else compare equal
+                int passed = (from + to) / 2;
+                long enemyPawns = board.getPieceSet(opponent(piece.getTeamColor()), ChessPiece.PieceType.PAWN);
+                if ((Attacks.pawn(piece.getTeamColor(), passed) & enemyPawns) != 0) {
+                    enPassantSquare = passed;
+                }
+            }
+        } else if (isCastling(piece, from, to)) {
+            board.setCode(castlingRookTo(from, to), board.codeAt(castlingRookFrom(from, to)));
+            board.setCode(castlingRookFrom(from, to), ChessBoard.EMPTY);
+            halfmoveClock++;
+        } else if (captured != ChessBoard.EMPTY) {
+            halfmoveClock = 0;
+        } else {
+            halfmoveClock++;
+        }
+        castlingRights &= CASTLING_KEPT[from] & CASTLING_KEPT[to];
+        teamTurn = opponent(piece.getTeamColor());
+    }
+
+    /**
+     * Takes back the last move applied with {@link #makeMove(int)} or
+     * {@link #makeMove(ChessMove)}, restoring the board and all game state.
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        undoCount--;
+        status = null;
+        long state = undoStates[undoCount];
+        int move = (int) (state & MOVE_MASK);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = (int) (state >>> MOVED_SHIFT) & 15;
+        int captured = (int) (state >>> CAPTURED_SHIFT) & 15;
+        board.setCode(from, moved);
+        board.setCode(to, captured);
+
+        ChessPiece piece = ChessPiece.byIndex(moved - 1);
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && isEnPassant(from, to, captured)) {
+            board.setCode(enPassantVictim(from, to),
+                    Bitboards.pieceIndex(opponent(piece.getTeamColor()), ChessPiece.PieceType.PAWN) + 1);
+        } else if (isCastling(piece, from, to)) {
+            board.setCode(castlingRookFrom(from, to), board.codeAt(castlingRookTo(from, to)));
+            board.setCode(castlingRookTo(from, to), ChessBoard.EMPTY);
+        }
+
+        castlingRights = (int) (state >>> CASTLING_SHIFT) & 15;
+        enPassantSquare = ((int) (state >>> EN_PASSANT_SHIFT) & 127) - 1;
+        teamTurn = TeamColor.values()[(int) (state >>> TURN_SHIFT) & 1];
+        halfmoveClock = (int) (state >>> HALFMOVE_SHIFT);
+    }
+
+    // a pawn moving diagonally onto an empty square can only be capturing en passant
+    private static boolean isEnPassant(int from, int to, int captured) {
+        return captured == ChessBoard.EMPTY && ((to - from) & 7) != 0;
+    }
+
+    // the pawn taken en passant stands beside the capturing pawn's start square
+    private static int enPassantVictim(int from, int to) {
+        return (from & 56) | (to & 7);
+    }
+
+    // castling is written as the king moving two squares along its row
+    private static boolean isCastling(ChessPiece piece, int from, int to) {
+        return piece.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2;
+    }
+
+    private static int castlingRookFrom(int from, int to) {
+        return to > from ? from + 3 : from - 4;
+    }
+
+    private static int castlingRookTo(int from, int to) {
+        return (from + to) / 2;
+    }
+
+    private void pushUndo(int move, int moved, int captured) {
+        if (undoCount == undoStates.length) {
+            int size = undoCount * 2;
+            undoStates = Arrays.copyOf(undoStates, size);
+            undoKeys = Arrays.copyOf(undoKeys, size);
+        }
+        undoStates[undoCount] = move
+                | ((long) castlingRights << CASTLING_SHIFT)
+                | ((long) (enPassantSquare + 1) << EN_PASSANT_SHIFT)
+                | ((long) teamTurn.ordinal() << TURN_SHIFT)
+                | ((long) moved << MOVED_SHIFT)
+                | ((long) captured << CAPTURED_SHIFT)
+                | ((long) halfmoveClock << HALFMOVE_SHIFT);
+        undoKeys[undoCount] = getPositionKey();
+        undoCount++;
+    }
+
+    /**
+     * @return moves made since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and increasing after black moves
+     */
+    public int getFullmoveNumber() {
+        return 1 + (startPly + undoCount) / 2;
+    }
+
+    int getCastlingRights() {
+        return castlingRights;
+    }
+
+    int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Replaces everything but the board, as when loading a saved position, and
+     * forgets the move history. An en passant square no pawn can capture onto is
+     * dropped, matching what {@link #makeMove(int)} records.
+     */
+    void setState(TeamColor turn, int castlingRights, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        teamTurn = turn;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = -1;
+        if (enPassantSquare >= 0
+                && (Attacks.pawn(opponent(turn), enPassantSquare) & board.getPieceSet(turn, ChessPiece.PieceType.PAWN)) != 0) {
+            this.enPassantSquare = enPassantSquare;
+        }
+        this.halfmoveClock = halfmoveClock;
+        startPly = 2 * (fullmoveNumber - 1) + turn.ordinal();
+        undoCount = 0;
+        status = null;
+    }
+
+    /**
+     * @return true once fifty moves by each side have passed without a capture or pawn move
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * Determines if the current position, with the same side to move, castling
+     * rights and en passant square, has now occurred at least three times. Only
+     * the positions since the last capture or pawn move can repeat, so the scan
+     * stops there instead of replaying the game.
+     *
+     * @return true if the position has repeated three times
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitions() >= 3;
+    }
+
+    /**
+     * @return how many times the current position has occurred, counting this one
+     */
+    public int repetitions() {
+        long key = getPositionKey();
+        int count = 1;
+        int oldest = Math.max(undoCount - halfmoveClock, 0);
+        // undoKeys[i] is the position before move i; only every other one has the same side to move
+        for (int i = undoCount - 2; i >= oldest; i -= 2) {
+            if (undoKeys[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determines if the given team has at least one legal move, stopping at the
+     * first one found instead of generating them all
+     *
+     * @param teamColor which team to look for a move for
+     * @return True if the team could make a move on the current board
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        return MoveGenerator.hasLegalMove(board, teamColor, teamColor == teamTurn ? enPassantSquare : -1);
+    }
+
+    /**
+     * Looks up the legal moves of the side to move in the game's cache, if any,
+     * generating and storing them on a miss.
+     */
+    private PositionCache.Entry sideToMove() {
+        PositionCache cache = positionCache;
+        long key = getPositionKey();
+        int state = teamTurn.ordinal() | (castlingRights << 1) | ((enPassantSquare + 1) << 5);
+        if (cache != null) {
+            PositionCache.Entry entry = cache.get(key, board, state);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = Arrays.copyOf(buffer, generateMoves(buffer, 0));
+        boolean inCheck = isInCheck(teamTurn);
+        if (cache == null) {
+            return new PositionCache.Entry(key, null, state, moves, inCheck);
+        }
+        return cache.put(key, board, state, moves, inCheck);
+    }
+
+    static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
+    /**
+     * Castling rights implied by a board: a side keeps a right while its king and
+     * that rook are still on their starting squares.
+     */
+    private static int castlingRightsFor(ChessBoard board) {
+        int rights = 0;
+        if (isPiece(board, 1, 5, TeamColor.WHITE, ChessPiece.PieceType.KING)) {
+            if (isPiece(board, 1, 8, TeamColor.WHITE, ChessPiece.PieceType.ROOK)) {rights |= WHITE_KINGSIDE;}
+            if (isPiece(board, 1, 1, TeamColor.WHITE, ChessPiece.PieceType.ROOK)) {rights |= WHITE_QUEENSIDE;}
+        }
+        if (isPiece(board, 8, 5, TeamColor.BLACK, ChessPiece.PieceType.KING)) {
+            if (isPiece(board, 8, 8, TeamColor.BLACK, ChessPiece.PieceType.ROOK)) {rights |= BLACK_KINGSIDE;}
+            if (isPiece(board, 8, 1, TeamColor.BLACK, ChessPiece.PieceType.ROOK)) {rights |= BLACK_QUEENSIDE;}
+        }
+        return rights;
+    }
+
+    private static boolean isPiece(ChessBoard board, int row, int col, TeamColor color, ChessPiece.PieceType type) {
+        return (board.getPieceSet(color, type) & Bitboards.bit(Bitboards.square(row, col))) != 0;
     }
 
     /**
@@ -66,7 +553,8 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        int king = board.kingSquares[teamColor.ordinal()];
+        return king >= 0 && board.isAttacked(king, opponent(teamColor), board.occupied);
     }
 
     /**
@@ -76,7 +564,10 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        if (teamColor == teamTurn) {
+            return evaluateStatus().isCheckmate();
+        }
+        return isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -87,7 +578,10 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        if (teamColor == teamTurn) {
+            return evaluateStatus().isStalemate();
+        }
+        return !isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -96,7 +590,13 @@ public class ChessGame {
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        throw new RuntimeException("Not implemented");
+        this.board = board;
+        castlingRights = castlingRightsFor(board);
+        enPassantSquare = -1;
+        halfmoveClock = 0;
+        startPly = 0;
+        undoCount = 0;
+        status = null;
     }
 
     /**
@@ -105,6 +605,6 @@ public class ChessGame {
      * @return the chessboard
      */
     public ChessBoard getBoard() {
-        throw new RuntimeException("Not implemented");
+        return board;
     }
 }
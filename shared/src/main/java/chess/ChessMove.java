@@ -16,6 +16,7 @@ public class ChessMove {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -2,9 +2,6 @@ package chess;
 
 import java.util.Collection;
 import java.util.Objects;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
 
 /**
  * Represents a single chess piece
@@ -19,6 +16,7 @@ public class ChessPiece {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -41,16 +39,58 @@ public class ChessPiece {
         this.type = type;
     }
 
+    // one shared instance per color and type, indexed by Bitboards.pieceIndex
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[Bitboards.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    /**
+     * @return the shared piece for a {@link Bitboards#pieceIndex} value
+     */
+    static ChessPiece byIndex(int index) {
+        return PIECES[index];
+    }
+
+    /**
+     * Gets the shared instance of a piece. Pieces are immutable, so there is no
+     * need to create more than the twelve distinct ones.
+     *
+     * @return the canonical piece for this color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[Bitboards.pieceIndex(pieceColor, type)];
+    }
+
     /**
      * The various different chess piece options
      */
     public enum PieceType {
-        KING,
-        QUEEN,
-        BISHOP,
-        KNIGHT,
-        ROOK,
-        PAWN
+        KING(0),
+        QUEEN(900),
+        BISHOP(330),
+        KNIGHT(320),
+        ROOK(500),
+        PAWN(100);
+
+        private final int value;
+
+        PieceType(int value) {
+            this.value = value;
+        }
+
+        /**
+         * @return the piece's material value in centipawns (a pawn is 100); the
+         * king, which is never traded, is worth 0
+         */
+        public int getValue() {
+            return value;
+        }
     }
 
     /**
@@ -75,307 +115,86 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new HashSet<>(); //honestly idk the difference btwn collection, hashset, and array
-        if (this.type == ChessPiece.PieceType.KING) {
-            moves = kingMoves(board, myPosition);
-        } else if  (this.type == ChessPiece.PieceType.KNIGHT) {
-            moves = knightMoves(board, myPosition);
-        } else if (this.type == ChessPiece.PieceType.BISHOP) {
-            moves = bishopMoves(board, myPosition);
-        } else if (this.type == ChessPiece.PieceType.ROOK) {
-            moves = rookMoves(board, myPosition);
-        } else if (this.type == ChessPiece.PieceType.QUEEN) {
-            moves = rookMoves(board, myPosition);
-            Collection<ChessMove> moves2 = new HashSet<>();
-            moves2 = bishopMoves(board, myPosition);
-            moves.addAll(moves2);
-        } else if (this.type == ChessPiece.PieceType.PAWN) {
-            moves = pawnMoves(board, myPosition);
-        }
-        return moves;
-    }
-
-    public boolean checkMove (ChessBoard board, ChessPosition myPosition, int row, int col) {
-        if (1 <= row && row <= 8 && 1 <= col && col <= 8) {
-            ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-            if (piece == null || piece.pieceColor != this.pieceColor) {
-                return true;
-            }
-        }
-        return false;
+        int[] buffer = new int[MAX_PIECE_MOVES];
+        return new MoveList(buffer, pieceMoves(board, Bitboards.square(myPosition), buffer, 0));
     }
 
-    public HashSet<ChessMove> pawnPromo(ChessBoard board, ChessPosition myPosition, int row, int col, HashSet<ChessMove> moves) {
-        moves.add(new ChessMove(myPosition, new ChessPosition(row, col), PieceType.QUEEN));
-        moves.add(new ChessMove(myPosition, new ChessPosition(row, col), PieceType.ROOK));
-        moves.add(new ChessMove(myPosition, new ChessPosition(row, col), PieceType.BISHOP));
-        moves.add(new ChessMove(myPosition, new ChessPosition(row, col), PieceType.KNIGHT));
-
-        return moves;
-    }
-
-    public HashSet<ChessMove> pawnMoves(ChessBoard board, ChessPosition myPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
-        HashSet<ChessMove> promomoves = new HashSet<>();
-
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        if (this.pieceColor == ChessGame.TeamColor.BLACK) {
-            //check if can move forward 1
-            ChessPiece piece = board.getPiece(new ChessPosition(row-1, col));
-            if (piece == null) {
-                if (row-1 == 1) {
-                    promomoves = pawnPromo(board, myPosition, row-1, col, moves);
-                    moves.addAll(promomoves);
-                } else {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(row-1, col), null));
-                    if (row == 7) {
-                        piece = board.getPiece(new ChessPosition(row-2, col));
-                        if (piece == null) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(row-2, col), null));
-                        }
-                    }
-                }
-            }
-            //check if can move forward 2
-
-            //check if can move diagonally
-            if (1 <= row - 1 && row - 1 <= 8 && 1 <= col + 1 && col + 1 <= 8) {
-            piece =     board.getPiece(new ChessPosition(row-1, col+1));
-                if (piece != null) {
-                    if (piece.pieceColor == ChessGame.TeamColor.WHITE) {
-                        if (row - 1 == 1) {
-                            promomoves = pawnPromo(board, myPosition, row - 1, col + 1, moves);
-                            moves.addAll(promomoves);
-                        } else if (1 <= row - 1 && row - 1 <= 8 && 1 <= col + 1 && col + 1 <= 8) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(row - 1, col + 1), null));
-                        }
-                    }
-                }
-            }
-            if (1 <= row-1 && row-1 <= 8 && 1 <= col-1 && col-1 <= 8) {
-                piece = board.getPiece(new ChessPosition(row-1, col-1));
-                if (piece != null) {
-                    if (piece.pieceColor == ChessGame.TeamColor.WHITE) {
-                        if (row - 1 == 1) {
-                            promomoves = pawnPromo(board, myPosition, row - 1, col - 1, moves);
-                            moves.addAll(promomoves);
-                        } else if (1 <= row - 1 && row - 1 <= 8 && 1 <= col - 1 && col - 1 <= 8) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(row - 1, col - 1), null));
-                        }
-                    }
-                }
-            }
-        }
+    /**
+     * Most moves a single piece can have: a queen in the middle of an open board.
+     * A buffer handed to {@link #pieceMoves(ChessBoard, int, int[], int)} needs this
+     * much room past the starting count.
+     */
+    public static final int MAX_PIECE_MOVES = 28;
 
-        if (this.pieceColor == ChessGame.TeamColor.WHITE) {
-            ChessPiece piece = board.getPiece(new ChessPosition(row+1, col));
-            if (piece == null) {
-                if (row+1 == 8) {
-                    promomoves = pawnPromo(board, myPosition, row+1, col, moves);
-                    moves.addAll(promomoves);
-                } else {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(row+1, col), null));
-                    //check if can move forward 2
-                    if (row == 2) {
-                        piece = board.getPiece(new ChessPosition(row+2, col));
-                        if (piece == null) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(row+2, col), null));
-                        }
-                    }
-                }
-            }
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
 
-            //check if can move diagonally
-            if (1 <= row+1 && row+1 <= 8 && 1 <= col+1 && col+1 <= 8) {
-                piece = board.getPiece(new ChessPosition(row + 1, col + 1));
-                if (piece != null) {
-                    if (piece.pieceColor == ChessGame.TeamColor.BLACK) {
-                        if (row + 1 == 8) {
-                            promomoves = pawnPromo(board, myPosition, row + 1, col + 1, moves);
-                            moves.addAll(promomoves);
-                        } else if (1 <= row + 1 && row + 1 <= 8 && 1 <= col + 1 && col + 1 <= 8) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(row + 1, col + 1), null));
-                        }
-                    }
-                }
-            }
-            if (1 <= row+1 && row+1 <= 8 && 1 <= col-1 && col-1 <= 8) {
-                piece = board.getPiece(new ChessPosition(row+1, col-1));
-                if (piece != null) {
-                    if (piece.pieceColor == ChessGame.TeamColor.BLACK) {
-                        if (row + 1 == 8) {
-                            promomoves = pawnPromo(board, myPosition, row + 1, col - 1, moves);
-                            moves.addAll(promomoves);
-                        } else if (1 <= row + 1 && row + 1 <= 8 && 1 <= col - 1 && col - 1 <= 8) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(row + 1, col - 1), null));
-                        }
-                    }
-                }
-            }
+    /**
+     * Same as {@link #pieceMoves(ChessBoard, ChessPosition)}, but writes each move as a
+     * {@link PackedMove} into a caller-owned buffer and allocates nothing.
+     *
+     * @param square the square this piece stands on, see {@link PackedMove}
+     * @param moves  buffer to write into, with room for {@link #MAX_PIECE_MOVES} more entries
+     * @param count  index of the first free slot in the buffer
+     * @return the new number of moves in the buffer
+     */
+    public int pieceMoves(ChessBoard board, int square, int[] moves, int count) {
+        switch (type) {
+            case KING -> count = targetMoves(board, square, Attacks.king(square), moves, count);
+            case KNIGHT -> count = targetMoves(board, square, Attacks.knight(square), moves, count);
+            case BISHOP -> count = targetMoves(board, square, Attacks.bishop(square, board.occupied), moves, count);
+            case ROOK -> count = targetMoves(board, square, Attacks.rook(square, board.occupied), moves, count);
+            case QUEEN -> count = targetMoves(board, square, Attacks.queen(square, board.occupied), moves, count);
+            case PAWN -> count = pawnMoves(board, square, moves, count);
         }
-
-        return moves;
+        return count;
     }
 
-    public HashSet<ChessMove> rookMoves(ChessBoard board, ChessPosition myPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
-
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        while(row<8) {
-            row++;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
-        }
-        row = myPosition.getRow();
-
-        while(row>1) {
-            row--;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
-        }
-        row = myPosition.getRow();
-
-        while(col<8) {
-            col++;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
-        }
-        col = myPosition.getColumn();
-
-        while(col>1) {
-            col--;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
+    /**
+     * Emits a move to every attacked square not held by this piece's own team.
+     */
+    private int targetMoves(ChessBoard board, int square, long attacks, int[] moves, int count) {
+        long targets = attacks & ~board.colorSets[pieceColor.ordinal()];
+        while (targets != 0) {
+            moves[count++] = PackedMove.of(square, Long.numberOfTrailingZeros(targets));
+            targets &= targets - 1;
         }
-
-        return moves;
+        return count;
     }
 
-    public HashSet<ChessMove> bishopMoves(ChessBoard board, ChessPosition myPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
-
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        while(row<8 && col<8) {
-            row++;
-            col++;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
+    private int pawnMoves(ChessBoard board, int square, int[] moves, int count) {
+        boolean white = pieceColor == ChessGame.TeamColor.WHITE;
+        int next = white ? square + 8 : square - 8;
+        if (next < 0 || next > 63) {
+            return count;
         }
-        row = myPosition.getRow();
-        col = myPosition.getColumn();
 
-        while(row>1 && col>1) {
-            row--;
-            col--;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
-        }
-        row = myPosition.getRow();
-        col = myPosition.getColumn();
-
-        while(row>1 && col<8) {
-            row--;
-            col++;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
-        }
-        row = myPosition.getRow();
-        col = myPosition.getColumn();
-
-        while(row<8 && col>1) {
-            row++;
-            col--;
-            if (checkMove(board, myPosition, row, col)) {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row, col), null));
-                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
-                if (piece != null) {break;}
-            } else {break;}
-        }
-
-        return moves;
-    }
-
-    public HashSet<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
-        HashSet<ChessPosition> possibleMoves = new HashSet<>();
-
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        possibleMoves.add(new ChessPosition(row+1, col-1));
-        possibleMoves.add(new ChessPosition(row+1, col));
-        possibleMoves.add(new ChessPosition(row+1, col+1));
-        possibleMoves.add(new ChessPosition(row, col-1));
-        possibleMoves.add(new ChessPosition(row, col+1));
-        possibleMoves.add(new ChessPosition(row-1, col-1));
-        possibleMoves.add(new ChessPosition(row-1, col));
-        possibleMoves.add(new ChessPosition(row-1, col+1));
-
-        for (ChessPosition x : possibleMoves) {
-            int testRow = x.getRow();
-            int testCol = x.getColumn();
-            if (checkMove(board, x, testRow, testCol)) {
-                moves.add(new ChessMove(myPosition, x, null));
+        //move forward 1, or 2 from the starting row
+        if ((board.occupied & Bitboards.bit(next)) == 0) {
+            count = pawnMove(square, next, moves, count);
+            int twoSteps = white ? next + 8 : next - 8;
+            if (Bitboards.row(square) == (white ? 2 : 7) && (board.occupied & Bitboards.bit(twoSteps)) == 0) {
+                moves[count++] = PackedMove.of(square, twoSteps);
             }
         }
 
-        return moves;
+        //capture diagonally
+        long captures = Attacks.pawn(pieceColor, square) & board.colorSets[1 - pieceColor.ordinal()];
+        while (captures != 0) {
+            count = pawnMove(square, Long.numberOfTrailingZeros(captures), moves, count);
+            captures &= captures - 1;
+        }
+        return count;
     }
 
-    public HashSet<ChessMove> knightMoves(ChessBoard board, ChessPosition myPosition) {
-        HashSet<ChessMove> moves = new HashSet<>();
-        HashSet<ChessPosition> possibleMoves = new HashSet<>();
-
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        possibleMoves.add(new ChessPosition(row+2, col+1));
-        possibleMoves.add(new ChessPosition(row+2, col-1));
-        possibleMoves.add(new ChessPosition(row-2, col+1));
-        possibleMoves.add(new ChessPosition(row-2, col-1));
-        possibleMoves.add(new ChessPosition(row+1, col+2));
-        possibleMoves.add(new ChessPosition(row-1, col+2));
-        possibleMoves.add(new ChessPosition(row+1, col-2));
-        possibleMoves.add(new ChessPosition(row-1, col-2));
-
-
-        for (ChessPosition x : possibleMoves) {
-            int testRow = x.getRow();
-            int testCol = x.getColumn();
-            if (checkMove(board, x, testRow, testCol)) {
-                moves.add(new ChessMove(myPosition, x, null));
+    private int pawnMove(int square, int to, int[] moves, int count) {
+        int row = Bitboards.row(to);
+        if (row == 1 || row == 8) {
+            for (PieceType promotion : PROMOTIONS) {
+                moves[count++] = PackedMove.of(square, to, promotion);
             }
+        } else {
+            moves[count++] = PackedMove.of(square, to);
         }
-        return moves;
-
+        return count;
     }
-
-
 }
@@ -14,6 +14,7 @@ public class ChessPosition {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -36,6 +37,37 @@ public class ChessPosition {
         this.col = col;
     }
 
+    // one shared instance per square on the board, indexed by Bitboards.square
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                POSITIONS[Bitboards.square(row, col)] = new ChessPosition(row, col);
+            }
+        }
+    }
+
+    /**
+     * Gets the shared instance of a position. Positions off the board are not
+     * cached and get a new instance.
+     *
+     * @return the canonical position for this row and column
+     */
+    public static ChessPosition of(int row, int col) {
+        if (1 <= row && row <= 8 && 1 <= col && col <= 8) {
+            return POSITIONS[Bitboards.square(row, col)];
+        }
+        return new ChessPosition(row, col);
+    }
+
+    /**
+     * @return the shared position for a square index, see {@link Bitboards}
+     */
+    static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -0,0 +1,264 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN), the one-line text
+ * form used by most chess tools, e.g. the starting position is
+ * {@value #STARTING_POSITION}.
+ * <p>
+ * Loading reads the characters (or ASCII bytes) in place instead of splitting them
+ * into strings, and refills the game's existing board, so loading a position
+ * creates no garbage. Writing appends to a caller's {@link StringBuilder}, which
+ * can be reused from one position to the next.
+ */
+public final class Fen {
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // indexed by piece index, see Bitboards.pieceIndex
+    private static final String PIECE_CHARS = "KQBNRPkqbnrp";
+
+    private Fen() {
+    }
+
+    /**
+     * @return a new game in the position described by the FEN string
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame parse(CharSequence fen) {
+        ChessGame game = new ChessGame();
+        load(fen, game);
+        return game;
+    }
+
+    /**
+     * Puts a game into the position described by a FEN string, reusing its board
+     * and forgetting its move history. The last two fields (halfmove clock and
+     * full move number) may be left off.
+     *
+     * @throws IllegalArgumentException if the string is not valid FEN, in which
+     *                                  case the game is left unchanged
+     */
+    public static void load(CharSequence fen, ChessGame game) {
+        load(fen, null, 0, fen.length(), game);
+    }
+
+    /**
+     * Same as {@link #load(CharSequence, ChessGame)}, reading ASCII bytes between
+     * the buffer's position and limit. The buffer's position is left unchanged.
+     */
+    public static void load(ByteBuffer fen, ChessGame game) {
+        load(null, fen, fen.position(), fen.limit(), game);
+    }
+
+    /**
+     * @return the FEN string of the game's current position
+     */
+    public static String toFen(ChessGame game) {
+        return write(game, new StringBuilder(90)).toString();
+    }
+
+    /**
+     * Appends the FEN string of the game's current position.
+     *
+     * @return the builder that was passed in
+     */
+    public static StringBuilder write(ChessGame game, StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int code = board.codeAt(Bitboards.square(row, col));
+                if (code == ChessBoard.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_CHARS.charAt(code - 1));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int rights = game.getCastlingRights();
+        if (rights == 0) {
+            out.append('-');
+        }
+        if ((rights & ChessGame.WHITE_KINGSIDE) != 0) {out.append('K');}
+        if ((rights & ChessGame.WHITE_QUEENSIDE) != 0) {out.append('Q');}
+        if ((rights & ChessGame.BLACK_KINGSIDE) != 0) {out.append('k');}
+        if ((rights & ChessGame.BLACK_QUEENSIDE) != 0) {out.append('q');}
+
+        out.append(' ');
+        int enPassant = game.getEnPassantSquare();
+        if (enPassant < 0) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + Bitboards.column(enPassant) - 1)).append((char) ('0' + Bitboards.row(enPassant)));
+        }
+        return out.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+    }
+
+    // reads from whichever of text or bytes was given
+    private static void load(CharSequence text, ByteBuffer bytes, int start, int end, ChessGame game) {
+        // the pieces are only checked here and placed once every field has been read,
+        // so a bad string leaves the game as it was
+        int placement = skipSpaces(text, bytes, start, end);
+        int i = placePieces(text, bytes, placement, end, null);
+
+        i = skipSpaces(text, bytes, i, end);
+        if (i >= end) {
+            throw invalid("missing side to move");
+        }
+        char side = charAt(text, bytes, i++);
+        if (side != 'w' && side != 'b') {
+            throw invalid("side to move must be 'w' or 'b', not '" + side + "'");
+        }
+        ChessGame.TeamColor turn = side == 'w' ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+
+        i = skipSpaces(text, bytes, i, end);
+        if (i >= end) {
+            throw invalid("missing castling rights");
+        }
+        int rights = 0;
+        if (charAt(text, bytes, i) == '-') {
+            i++;
+        } else {
+            for (; i < end && charAt(text, bytes, i) != ' '; i++) {
+                switch (charAt(text, bytes, i)) {
+                    case 'K' -> rights |= ChessGame.WHITE_KINGSIDE;
+                    case 'Q' -> rights |= ChessGame.WHITE_QUEENSIDE;
+                    case 'k' -> rights |= ChessGame.BLACK_KINGSIDE;
+                    case 'q' -> rights |= ChessGame.BLACK_QUEENSIDE;
+                    default -> throw invalid("unknown castling right '" + charAt(text, bytes, i) + "'");
+                }
+            }
+        }
+
+        i = skipSpaces(text, bytes, i, end);
+        if (i >= end) {
+            throw invalid("missing en passant square");
+        }
+        int enPassant = -1;
+        if (charAt(text, bytes, i) == '-') {
+            i++;
+        } else {
+            char file = i < end ? charAt(text, bytes, i++) : ' ';
+            char rank = i < end ? charAt(text, bytes, i++) : ' ';
+            if (file < 'a' || file > 'h' || (rank != '3' && rank != '6')) {
+                throw invalid("bad en passant square");
+            }
+            enPassant = Bitboards.square(rank - '0', file - 'a' + 1);
+        }
+
+        // the move counters are often left off
+        long halfmoveClock = 0;
+        long fullmoveNumber = 1;
+        i = skipSpaces(text, bytes, i, end);
+        if (i < end) {
+            for (; i < end && charAt(text, bytes, i) != ' '; i++) {
+                halfmoveClock = halfmoveClock * 10 + digit(charAt(text, bytes, i));
+                if (halfmoveClock > ChessGame.MAX_HALFMOVE_CLOCK) {
+                    throw invalid("halfmove clock is larger than " + ChessGame.MAX_HALFMOVE_CLOCK);
+                }
+            }
+            i = skipSpaces(text, bytes, i, end);
+            if (i < end) {
+                fullmoveNumber = 0;
+                for (; i < end && charAt(text, bytes, i) != ' '; i++) {
+                    fullmoveNumber = fullmoveNumber * 10 + digit(charAt(text, bytes, i));
+                    if (fullmoveNumber > ChessGame.MAX_FULLMOVE_NUMBER) {
+                        throw invalid("full move number is larger than " + ChessGame.MAX_FULLMOVE_NUMBER);
+                    }
+                }
+                if (fullmoveNumber < 1) {
+                    throw invalid("full move number must be at least 1");
+                }
+            }
+        }
+        if (skipSpaces(text, bytes, i, end) < end) {
+            throw invalid("unexpected text after the move counters");
+        }
+
+        ChessBoard board = game.getBoard();
+        board.clear();
+        placePieces(text, bytes, placement, end, board);
+        game.setState(turn, rights, enPassant, (int) halfmoveClock, (int) fullmoveNumber);
+    }
+
+    /**
+     * Reads the piece placement field, from row 8 down and each row from column 1.
+     *
+     * @param board the board to put the pieces on, or null to only check the field
+     * @return the index just past the field
+     */
+    private static int placePieces(CharSequence text, ByteBuffer bytes, int i, int end, ChessBoard board) {
+        int row = 8;
+        int col = 1;
+        for (; i < end; i++) {
+            char c = charAt(text, bytes, i);
+            if (c == ' ') {
+                break;
+            }
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw invalid("row " + row + " does not have 8 squares");
+                }
+                row--;
+                col = 1;
+            } else if ('1' <= c && c <= '8') {
+                col += c - '0';
+                if (col > 9) {
+                    throw invalid("row " + row + " has more than 8 squares");
+                }
+            } else {
+                int piece = PIECE_CHARS.indexOf(c);
+                if (piece < 0) {
+                    throw invalid("unknown piece '" + c + "'");
+                }
+                if (col > 8) {
+                    throw invalid("row " + row + " has more than 8 squares");
+                }
+                if (board != null) {
+                    board.setCode(Bitboards.square(row, col), piece + 1);
+                }
+                col++;
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw invalid("piece placement does not cover 8 rows of 8 squares");
+        }
+        return i;
+    }
+
+    private static char charAt(CharSequence text, ByteBuffer bytes, int index) {
+        return text != null ? text.charAt(index) : (char) (bytes.get(index) & 0xFF);
+    }
+
+    private static int skipSpaces(CharSequence text, ByteBuffer bytes, int index, int end) {
+        while (index < end && charAt(text, bytes, index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int digit(char c) {
+        if (c < '0' || c > '9') {
+            throw invalid("move counters must be numbers");
+        }
+        return c - '0';
+    }
+
+    private static IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid FEN: " + reason);
+    }
+}
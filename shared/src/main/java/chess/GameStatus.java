@@ -0,0 +1,67 @@
+package chess;
+
+import java.util.Objects;
+
+/**
+ * An immutable summary of a position from the side to move's point of view:
+ * whether it is in check and how many legal moves it has, from which checkmate
+ * and stalemate follow.
+ */
+public final class GameStatus {
+
+    private final ChessGame.TeamColor teamTurn;
+    private final boolean inCheck;
+    private final int legalMoveCount;
+
+    public GameStatus(ChessGame.TeamColor teamTurn, boolean inCheck, int legalMoveCount) {
+        this.teamTurn = teamTurn;
+        this.inCheck = inCheck;
+        this.legalMoveCount = legalMoveCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GameStatus that = (GameStatus) o;
+        return teamTurn == that.teamTurn && inCheck == that.inCheck && legalMoveCount == that.legalMoveCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(teamTurn, inCheck, legalMoveCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s,check=%s,moves=%d", teamTurn, inCheck, legalMoveCount);
+    }
+
+    /**
+     * @return the team this status describes, the one to move
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    public boolean isInCheck() {
+        return inCheck;
+    }
+
+    public int getLegalMoveCount() {
+        return legalMoveCount;
+    }
+
+    public boolean isCheckmate() {
+        return inCheck && legalMoveCount == 0;
+    }
+
+    /**
+     * @return true if the team to move is not in check but has no legal move
+     */
+    public boolean isStalemate() {
+        return !inCheck && legalMoveCount == 0;
+    }
+}
@@ -1,9 +1,13 @@
 package chess;
 
+import java.io.Serial;
+
 /**
  * Indicates an invalid move was made in a game
  */
 public class InvalidMoveException extends Exception {
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     public InvalidMoveException() {}
 
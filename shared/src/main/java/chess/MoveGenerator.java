@@ -0,0 +1,256 @@
+package chess;
+
+/**
+ * Generates strictly legal moves as {@link PackedMove}s.
+ * <p>
+ * Instead of making each move and testing for check, the checkers and pinned
+ * pieces are found once per call: while in check every non-king move has to
+ * capture the checker or block its line, a pinned piece may only move along the
+ * line through its king, and king moves are tested against the opponent's attacks
+ * with the king lifted off the board.
+ */
+final class MoveGenerator {
+
+    /**
+     * Buffer size that holds every legal move of any position, with room for the
+     * pseudo-legal moves of one more piece while they are being filtered.
+     */
+    static final int MAX_MOVES = 256;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Same as {@link #legalMoves(ChessBoard, ChessGame.TeamColor, int, int, long, int[], int)}
+     * with no castling rights and no en passant square.
+     */
+    static int legalMoves(ChessBoard board, ChessGame.TeamColor color, long from, int[] moves, int count) {
+        return legalMoves(board, color, 0, -1, from, moves, count);
+    }
+
+    /**
+     * Writes the legal moves of a team's pieces on the given squares into the buffer.
+     *
+     * @param color           team to move
+     * @param castlingRights  castling rights bits from {@link ChessGame}
+     * @param enPassantSquare square a pawn may capture onto en passant, or -1
+     * @param from            squares whose pieces should be generated, -1L for all
+     * @param moves           buffer with room for {@link #MAX_MOVES} entries past count
+     * @param count           index of the first free slot in the buffer
+     * @return the new number of moves in the buffer
+     */
+    static int legalMoves(ChessBoard board, ChessGame.TeamColor color, int castlingRights, int enPassantSquare,
+                          long from, int[] moves, int count) {
+        ChessGame.TeamColor enemy = ChessGame.opponent(color);
+        long own = board.getColorSet(color);
+        int king = board.kingSquares[color.ordinal()];
+        long pieces = own & from;
+
+        if (king < 0) {
+            // no king to protect, so every pseudo-legal move is legal
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                count = board.pieceAt(square).pieceMoves(board, square, moves, count);
+                pieces &= pieces - 1;
+            }
+            return enPassantSquare < 0 ? count : enPassantMoves(board, color, king, enPassantSquare, from, moves, count);
+        }
+
+        long checkers = attackersTo(board, king, enemy, board.occupied);
+        long pinned = pinned(board, king, color);
+
+        // squares a non-king move must land on
+        long evasions = -1L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            evasions = (checkers & (checkers - 1)) != 0 ? 0L : Attacks.between(king, checker) | checkers;
+        }
+
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            ChessPiece piece = board.pieceAt(square);
+            int end = piece.pieceMoves(board, square, moves, count);
+            if (square == king) {
+                long occupied = board.occupied ^ Bitboards.bit(king);
+                for (int i = count; i < end; i++) {
+                    if (!board.isAttacked(PackedMove.to(moves[i]), enemy, occupied)) {
+                        moves[count++] = moves[i];
+                    }
+                }
+            } else {
+                long allowed = evasions;
+                if ((pinned & Bitboards.bit(square)) != 0) {
+                    allowed &= Attacks.line(king, square);
+                }
+                for (int i = count; i < end; i++) {
+                    if ((allowed & Bitboards.bit(PackedMove.to(moves[i]))) != 0) {
+                        moves[count++] = moves[i];
+                    }
+                }
+            }
+        }
+        if (castlingRights != 0 && checkers == 0 && (from & Bitboards.bit(king)) != 0) {
+            count = castlingMoves(board, color, king, castlingRights, moves, count);
+        }
+        if (enPassantSquare >= 0) {
+            count = enPassantMoves(board, color, king, enPassantSquare, from, moves, count);
+        }
+        return count;
+    }
+
+    /**
+     * Adds the castling moves, written as the king moving two squares, for a king
+     * that is not in check. The rook must still be home with nothing between it
+     * and the king, and the king may not pass through or land on an attacked square.
+     */
+    private static int castlingMoves(ChessBoard board, ChessGame.TeamColor color, int king, int castlingRights,
+                                     int[] moves, int count) {
+        int home = color == ChessGame.TeamColor.WHITE ? Bitboards.square(1, 5) : Bitboards.square(8, 5);
+        if (king != home) {
+            return count;
+        }
+        int kingside = color == ChessGame.TeamColor.WHITE ? ChessGame.WHITE_KINGSIDE : ChessGame.BLACK_KINGSIDE;
+        int queenside = color == ChessGame.TeamColor.WHITE ? ChessGame.WHITE_QUEENSIDE : ChessGame.BLACK_QUEENSIDE;
+        ChessGame.TeamColor enemy = ChessGame.opponent(color);
+        long rooks = board.getPieceSet(color, ChessPiece.PieceType.ROOK);
+
+        if ((castlingRights & kingside) != 0 && (rooks & Bitboards.bit(home + 3)) != 0
+                && (Attacks.between(home, home + 3) & board.occupied) == 0
+                && !board.isAttacked(home + 1, enemy, board.occupied)
+                && !board.isAttacked(home + 2, enemy, board.occupied)) {
+            moves[count++] = PackedMove.of(home, home + 2);
+        }
+        if ((castlingRights & queenside) != 0 && (rooks & Bitboards.bit(home - 4)) != 0
+                && (Attacks.between(home, home - 4) & board.occupied) == 0
+                && !board.isAttacked(home - 1, enemy, board.occupied)
+                && !board.isAttacked(home - 2, enemy, board.occupied)) {
+            moves[count++] = PackedMove.of(home, home - 2);
+        }
+        return count;
+    }
+
+    /**
+     * Adds the en passant captures onto the given square. Each one is checked by
+     * replaying its effect on the occupancy, since removing two pawns from one row
+     * can expose the king in ways the pin test does not see.
+     */
+    private static int enPassantMoves(ChessBoard board, ChessGame.TeamColor color, int king, int enPassantSquare,
+                                      long from, int[] moves, int count) {
+        ChessGame.TeamColor enemy = ChessGame.opponent(color);
+        int victim = color == ChessGame.TeamColor.WHITE ? enPassantSquare - 8 : enPassantSquare + 8;
+        if ((board.getPieceSet(enemy, ChessPiece.PieceType.PAWN) & Bitboards.bit(victim)) == 0) {
+            return count;
+        }
+        long pawns = Attacks.pawn(enemy, enPassantSquare) & board.getPieceSet(color, ChessPiece.PieceType.PAWN) & from;
+        while (pawns != 0) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long occupied = (board.occupied ^ Bitboards.bit(square) ^ Bitboards.bit(victim)) | Bitboards.bit(enPassantSquare);
+            if (king < 0 || attackersTo(board, king, enemy, occupied) == 0) {
+                moves[count++] = PackedMove.of(square, enPassantSquare);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a team has any legal move, stopping at the first one found.
+     * King moves are tried first since they are the cheapest to test and the
+     * only ones possible in double check; other pieces are tested on their whole
+     * target set at once, so only pawns ever write moves out. Castling is never
+     * the only legal move (the king could step instead), but en passant can be.
+     *
+     * @param enPassantSquare square a pawn may capture onto en passant, or -1
+     */
+    static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color, int enPassantSquare) {
+        ChessGame.TeamColor enemy = ChessGame.opponent(color);
+        long own = board.getColorSet(color);
+        int king = board.kingSquares[color.ordinal()];
+        if (king < 0) {
+            return legalMoves(board, color, 0, enPassantSquare, -1L, new int[MAX_MOVES], 0) > 0;
+        }
+
+        long occupied = board.occupied ^ Bitboards.bit(king);
+        long targets = Attacks.king(king) & ~own;
+        while (targets != 0) {
+            if (!board.isAttacked(Long.numberOfTrailingZeros(targets), enemy, occupied)) {
+                return true;
+            }
+            targets &= targets - 1;
+        }
+
+        long checkers = attackersTo(board, king, enemy, board.occupied);
+        if ((checkers & (checkers - 1)) != 0) {
+            return false;
+        }
+        long evasions = checkers == 0 ? -1L : Attacks.between(king, Long.numberOfTrailingZeros(checkers)) | checkers;
+        long pinned = pinned(board, king, color);
+
+        int[] moves = null;
+        long pieces = own ^ Bitboards.bit(king);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long allowed = evasions & ~own;
+            if ((pinned & Bitboards.bit(square)) != 0) {
+                allowed &= Attacks.line(king, square);
+            }
+            switch (board.pieceAt(square).getPieceType()) {
+                case QUEEN -> targets = Attacks.queen(square, board.occupied);
+                case BISHOP -> targets = Attacks.bishop(square, board.occupied);
+                case ROOK -> targets = Attacks.rook(square, board.occupied);
+                case KNIGHT -> targets = Attacks.knight(square);
+                default -> {
+                    if (moves == null) {
+                        moves = new int[ChessPiece.MAX_PIECE_MOVES];
+                    }
+                    int count = board.pieceAt(square).pieceMoves(board, square, moves, 0);
+                    targets = 0L;
+                    for (int i = 0; i < count; i++) {
+                        targets |= Bitboards.bit(PackedMove.to(moves[i]));
+                    }
+                }
+            }
+            if ((targets & allowed) != 0) {
+                return true;
+            }
+        }
+        return enPassantSquare >= 0 && enPassantMoves(board, color, king, enPassantSquare, -1L, new int[2], 0) > 0;
+    }
+
+    /**
+     * @return the pieces of the given team that attack a square, with sliders
+     * seeing through everything not in the occupied set
+     */
+    static long attackersTo(ChessBoard board, int square, ChessGame.TeamColor by, long occupied) {
+        long queens = board.getPieceSet(by, ChessPiece.PieceType.QUEEN);
+        long attackers = (Attacks.pawn(ChessGame.opponent(by), square) & board.getPieceSet(by, ChessPiece.PieceType.PAWN))
+                | (Attacks.knight(square) & board.getPieceSet(by, ChessPiece.PieceType.KNIGHT))
+                | (Attacks.king(square) & board.getPieceSet(by, ChessPiece.PieceType.KING))
+                | (Attacks.bishop(square, occupied) & (board.getPieceSet(by, ChessPiece.PieceType.BISHOP) | queens))
+                | (Attacks.rook(square, occupied) & (board.getPieceSet(by, ChessPiece.PieceType.ROOK) | queens));
+        return attackers & occupied;
+    }
+
+    /**
+     * @return the team's pieces that are the only thing between their king and an
+     * enemy slider on the same line
+     */
+    private static long pinned(ChessBoard board, int king, ChessGame.TeamColor color) {
+        ChessGame.TeamColor enemy = ChessGame.opponent(color);
+        long enemies = board.getColorSet(enemy);
+        long queens = board.getPieceSet(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (Attacks.rook(king, enemies) & (board.getPieceSet(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (Attacks.bishop(king, enemies) & (board.getPieceSet(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & board.occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & board.getColorSet(color);
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+}
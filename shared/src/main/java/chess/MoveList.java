@@ -0,0 +1,176 @@
+package chess;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An ordered list of moves stored as {@link PackedMove} ints in a growable array.
+ * Generated moves are already unique, so adding is a plain append with no hashing,
+ * and moves can be read by index in constant time.
+ * <p>
+ * {@link ChessMove} objects are only created when a move is read through
+ * {@link #get(int)} or the iterator. Like other collections that are not sets or
+ * lists, equality is identity; copy into a set to compare contents.
+ */
+public final class MoveList extends AbstractCollection<ChessMove> {
+
+    private int[] moves;
+    private int size;
+    // bumped on every structural change so iterators can fail fast
+    private int modCount;
+
+    public MoveList() {
+        this(16);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    /**
+     * Wraps the first count moves of a buffer, copying them.
+     */
+    MoveList(int[] buffer, int count) {
+        moves = Arrays.copyOf(buffer, count);
+        size = count;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the move at the given index, in the order moves were added
+     */
+    public ChessMove get(int index) {
+        return PackedMove.toChessMove(getPacked(index));
+    }
+
+    /**
+     * @return the move at the given index as a {@link PackedMove}
+     */
+    public int getPacked(int index) {
+        Objects.checkIndex(index, size);
+        return moves[index];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the move leaves the board
+     */
+    @Override
+    public boolean add(ChessMove move) {
+        addPacked(PackedMove.of(move));
+        return true;
+    }
+
+    /**
+     * Appends a move given as a {@link PackedMove}.
+     */
+    public void addPacked(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(16, size * 2));
+        }
+        moves[size++] = move;
+        modCount++;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof ChessMove move && onBoard(move) && indexOf(PackedMove.of(move)) >= 0;
+    }
+
+    public boolean containsPacked(int move) {
+        return indexOf(move) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof ChessMove move) || !onBoard(move)) {
+            return false;
+        }
+        int index = indexOf(PackedMove.of(move));
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * @return the moves as a new array of {@link PackedMove}s
+     */
+    public int[] toPackedArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    @Override
+    public Iterator<ChessMove> iterator() {
+        return new Iterator<>() {
+            private int next;
+            private int last = -1;
+            private int expected = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public ChessMove next() {
+                if (expected != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                last = next++;
+                return PackedMove.toChessMove(moves[last]);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                if (expected != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                removeAt(last);
+                next = last;
+                last = -1;
+                expected = modCount;
+            }
+        };
+    }
+
+    private int indexOf(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(moves, index + 1, moves, index, size - index - 1);
+        size--;
+        modCount++;
+    }
+
+    // off-board squares would pack onto real ones, so such a move is never in the list
+    private static boolean onBoard(ChessMove move) {
+        return Bitboards.onBoard(move.getStartPosition()) && Bitboards.onBoard(move.getEndPosition());
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+/**
+ * Encodes a chess move into a single int so move lists can live in plain
+ * {@code int[]} buffers without allocating a {@link ChessMove} per move.
+ * <p>
+ * Layout: bits 0-5 hold the start square, bits 6-11 the end square and bits
+ * 12-14 the promotion piece (0 for none, otherwise the {@link ChessPiece.PieceType}
+ * ordinal plus one). Squares are numbered 0..63 from row 1 column 1, running
+ * along each row.
+ */
+public final class PackedMove {
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion) {
+        int move = from | (to << 6);
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        return move;
+    }
+
+    /**
+     * @throws IllegalArgumentException if either square is off the board, which
+     *                                  would otherwise pack onto a different move
+     */
+    public static int of(ChessMove move) {
+        if (!Bitboards.onBoard(move.getStartPosition()) || !Bitboards.onBoard(move.getEndPosition())) {
+            throw new IllegalArgumentException("Move leaves the board: " + move);
+        }
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    /**
+     * @return the start square of a packed move
+     */
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    /**
+     * @return the end square of a packed move
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece of a packed move, or null if it is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+}
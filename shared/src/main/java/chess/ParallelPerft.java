@@ -0,0 +1,188 @@
+package chess;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link Perft} spread over a {@link ForkJoinPool}. The top of the move tree is
+ * split into one task per move until {@link #SEQUENTIAL_DEPTH} plies remain; each
+ * of those tasks owns a copy of the game and walks the rest of its subtree with
+ * make/unmake, like the single-threaded version.
+ * <p>
+ * An optional hash table, shared by all tasks, remembers the count under each
+ * position and depth so transpositions (the same position reached by different
+ * move orders) are only counted once. Entries are two longs, the second holding
+ * the count and depth and the first that value XORed with the position key, so a
+ * slot torn by two threads writing at once fails the key check instead of giving
+ * a wrong count. No locks are taken.
+ */
+public final class ParallelPerft {
+
+    /**
+     * Remaining depth at which a task stops splitting and counts on its own.
+     */
+    static final int SEQUENTIAL_DEPTH = 4;
+
+    private final ForkJoinPool pool;
+    // key ^ data, data pairs; null when no table was asked for
+    private final AtomicLongArray table;
+    private final int mask;
+
+    /**
+     * @param pool        pool to run on, e.g. {@link ForkJoinPool#commonPool()}
+     * @param hashEntries size of the transposition table, rounded up to a power of
+     *                    two, or 0 to count every path
+     */
+    public ParallelPerft(ForkJoinPool pool, int hashEntries) {
+        if (hashEntries < 0 || hashEntries > 1 << 29) {
+            throw new IllegalArgumentException("Hash entries must be between 0 and 2^29, not " + hashEntries);
+        }
+        this.pool = pool;
+        if (hashEntries == 0) {
+            table = null;
+            mask = 0;
+        } else {
+            int size = Integer.highestOneBit(hashEntries);
+            if (size < hashEntries) {
+                size <<= 1;
+            }
+            table = new AtomicLongArray(size * 2);
+            mask = size - 1;
+        }
+    }
+
+    /**
+     * Same as {@link Perft#perft(ChessGame, int)}. The game is not changed.
+     */
+    public long perft(ChessGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        return pool.invoke(new PerftTask(game.copy(), depth));
+    }
+
+    /**
+     * Same as {@link Perft#divide(ChessGame, int)}, with each first move counted in
+     * parallel. The game is not changed.
+     */
+    public Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        List<PerftTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ChessGame child = game.copy();
+            child.makeMove(moves[i]);
+            tasks.add(new PerftTask(child, depth - 1));
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            counts.put(PackedMove.toChessMove(moves[i]), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    private final class PerftTask extends RecursiveTask<Long> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized; the field is transient only to say so
+        private final transient ChessGame game;
+        private final int depth;
+
+        PerftTask(ChessGame game, int depth) {
+            this.game = game;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                return depth <= 0 ? 1L : count(game, depth, new int[depth][MoveGenerator.MAX_MOVES]);
+            }
+            long key = game.getPositionKey();
+            long stored = probe(key, depth);
+            if (stored >= 0) {
+                return stored;
+            }
+
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = game.generateMoves(moves, 0);
+            List<PerftTask> children = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ChessGame child = game.copy();
+                child.makeMove(moves[i]);
+                children.add(new PerftTask(child, depth - 1));
+            }
+            long nodes = 0;
+            for (PerftTask child : ForkJoinTask.invokeAll(children)) {
+                nodes += child.join();
+            }
+            store(key, depth, nodes);
+            return nodes;
+        }
+    }
+
+    private long count(ChessGame game, int depth, int[][] buffers) {
+        int[] moves = buffers[depth - 1];
+        if (depth == 1) {
+            return game.generateMoves(moves, 0);
+        }
+        long key = 0;
+        if (table != null) {
+            key = game.getPositionKey();
+            long stored = probe(key, depth);
+            if (stored >= 0) {
+                return stored;
+            }
+        }
+        int count = game.generateMoves(moves, 0);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(moves[i]);
+            nodes += count(game, depth - 1, buffers);
+            game.unmakeMove();
+        }
+        store(key, depth, nodes);
+        return nodes;
+    }
+
+    /**
+     * @return the stored count for the position at this depth, or -1
+     */
+    private long probe(long key, int depth) {
+        if (table == null) {
+            return -1;
+        }
+        int index = ((int) key & mask) * 2;
+        long data = table.get(index + 1);
+        if ((table.get(index) ^ data) != key || (data & 0xFF) != depth) {
+            return -1;
+        }
+        return data >>> 8;
+    }
+
+    private void store(long key, int depth, long nodes) {
+        if (table == null) {
+            return;
+        }
+        int index = ((int) key & mask) * 2;
+        long data = (nodes << 8) | depth;
+        table.set(index, key ^ data);
+        table.set(index + 1, data);
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). The
+ * counts for well-known positions are published, so this doubles as a
+ * correctness check for move generation and as a benchmark of it.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the positions reachable from the game's current position in exactly
+     * the given number of moves. The game is left as it was found.
+     *
+     * @param game  game whose side to move starts
+     * @param depth number of moves (plies) to play out
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        return perft(game, depth, new int[depth][MoveGenerator.MAX_MOVES]);
+    }
+
+    /**
+     * Same as {@link #perft(ChessGame, int)}, split by the first move.
+     *
+     * @return the leaf count under each legal first move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[][] buffers = new int[Math.max(depth - 1, 0)][MoveGenerator.MAX_MOVES];
+        int count = game.generateMoves(moves, 0);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            long nodes = 1;
+            if (depth > 1) {
+                game.makeMove(move);
+                nodes = perft(game, depth - 1, buffers);
+                game.unmakeMove();
+            }
+            counts.put(PackedMove.toChessMove(move), nodes);
+        }
+        return counts;
+    }
+
+    private static long perft(ChessGame game, int depth, int[][] buffers) {
+        int[] moves = buffers[depth - 1];
+        int count = game.generateMoves(moves, 0);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            game.makeMove(moves[i]);
+            nodes += perft(game, depth - 1, buffers);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+}
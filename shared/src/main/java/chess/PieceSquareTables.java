@@ -0,0 +1,133 @@
+package chess;
+
+/**
+ * Material and piece-square values for the board's running evaluation, see
+ * {@link ChessBoard#getEvaluation()}. Each piece on each square is worth a fixed
+ * amount in the middlegame and another in the endgame, so placing or removing a
+ * piece changes the scores by one table lookup each.
+ * <p>
+ * The square tables are written as the board is drawn, row 8 at the top, for
+ * white; black pieces read them mirrored top to bottom. Values are in centipawns
+ * (a pawn is 100).
+ */
+final class PieceSquareTables {
+
+    /**
+     * Phase of a full set of pieces; the phase falls toward 0 as pieces come off.
+     */
+    static final int MAX_PHASE = 24;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    // indexed by PieceType ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    private static final int[][] MIDGAME_TABLES = {
+            { // king: stay behind the pawns
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -30, -40, -40, -50, -50, -40, -40, -30,
+                    -20, -30, -30, -40, -40, -30, -30, -20,
+                    -10, -20, -20, -20, -20, -20, -20, -10,
+                    20, 20, 0, 0, 0, 0, 20, 20,
+                    20, 30, 10, 0, 0, 10, 30, 20},
+            { // queen
+                    -20, -10, -10, -5, -5, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 5, 5, 5, 0, -10,
+                    -5, 0, 5, 5, 5, 5, 0, -5,
+                    0, 0, 5, 5, 5, 5, 0, -5,
+                    -10, 5, 5, 5, 5, 5, 0, -10,
+                    -10, 0, 5, 0, 0, 0, 0, -10,
+                    -20, -10, -10, -5, -5, -10, -10, -20},
+            { // bishop
+                    -20, -10, -10, -10, -10, -10, -10, -20,
+                    -10, 0, 0, 0, 0, 0, 0, -10,
+                    -10, 0, 5, 10, 10, 5, 0, -10,
+                    -10, 5, 5, 10, 10, 5, 5, -10,
+                    -10, 0, 10, 10, 10, 10, 0, -10,
+                    -10, 10, 10, 10, 10, 10, 10, -10,
+                    -10, 5, 0, 0, 0, 0, 5, -10,
+                    -20, -10, -10, -10, -10, -10, -10, -20},
+            { // knight
+                    -50, -40, -30, -30, -30, -30, -40, -50,
+                    -40, -20, 0, 0, 0, 0, -20, -40,
+                    -30, 0, 10, 15, 15, 10, 0, -30,
+                    -30, 5, 15, 20, 20, 15, 5, -30,
+                    -30, 0, 15, 20, 20, 15, 0, -30,
+                    -30, 5, 10, 15, 15, 10, 5, -30,
+                    -40, -20, 0, 5, 5, 0, -20, -40,
+                    -50, -40, -30, -30, -30, -30, -40, -50},
+            { // rook
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    5, 10, 10, 10, 10, 10, 10, 5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    -5, 0, 0, 0, 0, 0, 0, -5,
+                    0, 0, 0, 5, 5, 0, 0, 0},
+            { // pawn
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    10, 10, 20, 30, 30, 20, 10, 10,
+                    5, 5, 10, 25, 25, 10, 5, 5,
+                    0, 0, 0, 20, 20, 0, 0, 0,
+                    5, -5, -10, 0, 0, -10, -5, 5,
+                    5, 10, 10, -20, -20, 10, 10, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0}
+    };
+
+    // only the king and pawns change their minds as the board empties
+    private static final int[][] ENDGAME_TABLES = {
+            { // king: come to the centre
+                    -50, -40, -30, -20, -20, -30, -40, -50,
+                    -30, -20, -10, 0, 0, -10, -20, -30,
+                    -30, -10, 20, 30, 30, 20, -10, -30,
+                    -30, -10, 30, 40, 40, 30, -10, -30,
+                    -30, -10, 30, 40, 40, 30, -10, -30,
+                    -30, -10, 20, 30, 30, 20, -10, -30,
+                    -30, -30, 0, 0, 0, 0, -30, -30,
+                    -50, -30, -30, -30, -30, -30, -30, -50},
+            MIDGAME_TABLES[1],
+            MIDGAME_TABLES[2],
+            MIDGAME_TABLES[3],
+            MIDGAME_TABLES[4],
+            { // pawn: push for promotion
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    80, 80, 80, 80, 80, 80, 80, 80,
+                    50, 50, 50, 50, 50, 50, 50, 50,
+                    30, 30, 30, 30, 30, 30, 30, 30,
+                    15, 15, 15, 15, 15, 15, 15, 15,
+                    5, 5, 5, 5, 5, 5, 5, 5,
+                    0, 0, 0, 0, 0, 0, 0, 0,
+                    0, 0, 0, 0, 0, 0, 0, 0}
+    };
+
+    // indexed by Bitboards.pieceIndex, then square; material included, and
+    // negated for black so every score is from white's point of view
+    static final int[][] MIDGAME = new int[12][64];
+    static final int[][] ENDGAME = new int[12][64];
+    // indexed by Bitboards.pieceIndex
+    static final int[] PHASE = new int[12];
+
+    static {
+        for (int piece = 0; piece < 12; piece++) {
+            int type = piece % 6;
+            boolean white = piece < 6;
+            for (int square = 0; square < 64; square++) {
+                // white squares are flipped to the drawn layout; black ones are already mirrored
+                int drawn = white ? square ^ 56 : square;
+                int sign = white ? 1 : -1;
+                int value = TYPES[type].getValue();
+                MIDGAME[piece][square] = sign * (value + MIDGAME_TABLES[type][drawn]);
+                ENDGAME[piece][square] = sign * (value + ENDGAME_TABLES[type][drawn]);
+            }
+            PHASE[piece] = PHASE_WEIGHTS[type];
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+}
@@ -0,0 +1,135 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table that remembers the legal moves and check status of positions
+ * already seen, so games passing through the same position (openings especially)
+ * skip move generation. One cache can be shared by any number of games and
+ * threads: slots are read and written with single atomic operations on immutable
+ * entries, with no locks. A game only uses a cache it has been given with
+ * {@link ChessGame#setPositionCache}.
+ * <p>
+ * Entries are found by Zobrist key and then checked against the full packed
+ * board and game state, so a key collision can never return another position's
+ * moves.
+ */
+public final class PositionCache {
+
+    /**
+     * What to do when a new position maps to a slot that already holds another.
+     */
+    public enum ReplacementPolicy {
+        /** The newest position takes the slot. */
+        ALWAYS_REPLACE,
+        /**
+         * The first position keeps the slot, which keeps early (opening) positions
+         * cached. A full cache admits nothing new, so this suits a short-lived cache
+         * better than one kept for the life of a server.
+         */
+        KEEP_EXISTING
+    }
+
+    static final class Entry {
+        final long key;
+        final long[] packed;
+        final int state;
+        final int[] moves;
+        final boolean inCheck;
+
+        Entry(long key, long[] packed, int state, int[] moves, boolean inCheck) {
+            this.key = key;
+            this.packed = packed;
+            this.state = state;
+            this.moves = moves;
+            this.inCheck = inCheck;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final ReplacementPolicy policy;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity number of positions to hold, rounded up to a power of two
+     * @param policy   what happens when two positions want the same slot
+     */
+    public PositionCache(int capacity, ReplacementPolicy policy) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30, not " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * @return how many positions the cache can hold
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public ReplacementPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return lookups that found their position
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return lookups that did not find their position
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Empties the cache and resets its counters.
+     */
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            slots.set(i, null);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @param state the game state not covered by the board: turn, castling rights
+     *              and en passant square packed into an int
+     * @return the cached entry for this exact position, or null
+     */
+    Entry get(long key, ChessBoard board, int state) {
+        Entry entry = slots.get((int) key & mask);
+        if (entry != null && entry.key == key && entry.state == state && Arrays.equals(entry.packed, board.packed)) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        return null;
+    }
+
+    Entry put(long key, ChessBoard board, int state, int[] moves, boolean inCheck) {
+        Entry entry = new Entry(key, board.packed.clone(), state, moves, inCheck);
+        int index = (int) key & mask;
+        if (policy == ReplacementPolicy.ALWAYS_REPLACE) {
+            slots.set(index, entry);
+        } else {
+            slots.compareAndSet(index, null, entry);
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,130 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static exchange evaluation (SEE): the material a capture wins or loses once
+ * both teams have taken back on the square as long as it pays them, worked out
+ * from attack sets without making any moves. Each side recaptures with its least
+ * valuable attacker, and sliders lined up behind an attacker (x-rays) join in as
+ * the pieces in front of them are used up.
+ * <p>
+ * Pins and checks are not considered, so a recapture by a pinned piece counts;
+ * the result is an estimate for ordering and pruning, not a proof.
+ */
+public final class StaticExchange {
+
+    // stands in for the king's value: more than everything else together, so the
+    // king only recaptures last
+    private static final int KING_VALUE = 20000;
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    // cheapest first
+    private static final ChessPiece.PieceType[] ATTACKER_ORDER = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING};
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Estimates a move's material result. Quiet moves are scored as an exchange on
+     * their target square too, so a negative result means the piece can be won.
+     *
+     * @param board the board before the move
+     * @param move  a packed move, see {@link PackedMove}, of a piece on the board
+     * @return the expected material gain in centipawns for the moving side
+     */
+    public static int evaluate(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int mover = board.codeAt(from) - 1;
+        long occupied = board.occupied ^ Bitboards.bit(from);
+
+        int captured = board.codeAt(to);
+        int gain = captured == ChessBoard.EMPTY ? 0 : value((captured - 1) % 6);
+        if (captured == ChessBoard.EMPTY && mover % 6 == ChessPiece.PieceType.PAWN.ordinal() && (from & 7) != (to & 7)) {
+            // en passant: the victim stands beside the moving pawn
+            gain = ChessPiece.PieceType.PAWN.getValue();
+            occupied ^= Bitboards.bit((from & 56) | (to & 7));
+        }
+        int onSquare = value(mover % 6);
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            onSquare = promotion.getValue();
+            gain += onSquare - ChessPiece.PieceType.PAWN.getValue();
+        }
+        ChessGame.TeamColor opponent = ChessGame.opponent(ChessPiece.byIndex(mover).getTeamColor());
+        return gain - exchange(board, to, opponent, onSquare, occupied);
+    }
+
+    /**
+     * Same as {@link #evaluate(ChessBoard, int)} for a {@link ChessMove}.
+     */
+    public static int evaluate(ChessBoard board, ChessMove move) {
+        return evaluate(board, PackedMove.of(move));
+    }
+
+    /**
+     * Determines if the piece on a square can be won: the other team attacks it
+     * and taking it with their cheapest attacker gains material.
+     *
+     * @param position the square of the piece to test
+     * @return true if the piece is hanging; false for empty squares and kings
+     */
+    public static boolean isHanging(ChessBoard board, ChessPosition position) {
+        int square = Bitboards.square(position);
+        int code = board.codeAt(square);
+        if (code == ChessBoard.EMPTY || (code - 1) % 6 == ChessPiece.PieceType.KING.ordinal()) {
+            return false;
+        }
+        ChessGame.TeamColor owner = ChessPiece.byIndex(code - 1).getTeamColor();
+        return exchange(board, square, ChessGame.opponent(owner), value((code - 1) % 6), board.occupied) > 0;
+    }
+
+    /**
+     * @return the squares of every piece of the team that {@link #isHanging} holds for
+     */
+    public static List<ChessPosition> hangingPieces(ChessBoard board, ChessGame.TeamColor color) {
+        List<ChessPosition> hanging = new ArrayList<>();
+        for (long set = board.getColorSet(color); set != 0; set &= set - 1) {
+            ChessPosition position = ChessPosition.of(Long.numberOfTrailingZeros(set));
+            if (isHanging(board, position)) {
+                hanging.add(position);
+            }
+        }
+        return hanging;
+    }
+
+    /**
+     * Plays out the captures on a square, cheapest attacker first, with either side
+     * free to stop when taking again would lose. Recursion keeps the running
+     * balances on the stack, so nothing is allocated.
+     *
+     * @param side     the team to capture next
+     * @param onSquare value of the piece standing on the square
+     * @param occupied the occupancy with every piece already used removed
+     * @return what the side to capture next gains, at least 0
+     */
+    private static int exchange(ChessBoard board, int square, ChessGame.TeamColor side, int onSquare, long occupied) {
+        // recomputed from the occupancy so sliders behind a piece that has left now see the square
+        long own = MoveGenerator.attackersTo(board, square, side, occupied);
+        if (own == 0) {
+            return 0;
+        }
+        for (ChessPiece.PieceType type : ATTACKER_ORDER) {
+            long pieces = own & board.getPieceSet(side, type);
+            if (pieces != 0) {
+                int next = exchange(board, square, ChessGame.opponent(side), value(type.ordinal()),
+                        occupied ^ (pieces & -pieces));
+                return Math.max(0, onSquare - next);
+            }
+        }
+        return 0;
+    }
+
+    private static int value(int type) {
+        return type == ChessPiece.PieceType.KING.ordinal() ? KING_VALUE : TYPES[type].getValue();
+    }
+}
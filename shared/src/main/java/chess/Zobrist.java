@@ -0,0 +1,39 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the keys for
+ * each piece on its square plus the side to move, castling rights and en passant
+ * file, so any change to the position updates the key with one or two XORs.
+ */
+final class Zobrist {
+
+    // indexed by Bitboards.pieceIndex, then square
+    static final long[][] PIECES = new long[12][64];
+    // XORed in when black is to move
+    static final long SIDE;
+    // indexed by a 4-bit castling rights mask
+    static final long[] CASTLING = new long[16];
+    // indexed by the 0-based column of the en passant target square
+    static final long[] EN_PASSANT = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED240L);
+        for (long[] keys : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        SIDE = random.nextLong();
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int col = 0; col < 8; col++) {
+            EN_PASSANT[col] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+}
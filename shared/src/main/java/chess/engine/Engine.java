@@ -0,0 +1,148 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A computer player: finds a good move for the side to move within a time budget.
+ * The search deepens one ply at a time and always has a move ready, so it can be
+ * stopped at any point; the budget is a hard limit, checked every few thousand
+ * positions.
+ * <p>
+ * The transposition table is kept between searches, which helps when the engine
+ * plays a whole game. Call {@link #clear()} before switching to an unrelated game.
+ * An engine runs one search at a time.
+ * <p>
+ * With more than one thread the engine searches "Lazy SMP" style: helper threads
+ * search the same position alongside the main one, every thread on its own copy
+ * of the game, sharing only the transposition table. Helpers fill the table with
+ * results the main search then finds instead of searching again; half of them run
+ * one iteration ahead so they are not all working on the same depth. The move
+ * played is the main search's, and every thread stops when it finishes.
+ */
+public final class Engine {
+
+    /**
+     * Score of being checkmated now; a mate n plies away scores {@code MATE - n}.
+     */
+    public static final int MATE = 30000;
+
+    /**
+     * Deepest the search goes, extensions and captures included.
+     */
+    public static final int MAX_PLY = 100;
+
+    public static final int DEFAULT_TABLE_SIZE = 1 << 20;
+
+    // beyond any real score
+    static final int INFINITY = 32000;
+
+    private final TranspositionTable table;
+    private final int threads;
+
+    public Engine() {
+        this(DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * @param tableSize transposition table entries, rounded up to a power of two;
+     *                  each takes 16 bytes
+     */
+    public Engine(int tableSize) {
+        this(tableSize, 1);
+    }
+
+    /**
+     * @param tableSize transposition table entries, as for {@link #Engine(int)}
+     * @param threads   threads each search runs on, e.g.
+     *                  {@code Runtime.getRuntime().availableProcessors()}
+     */
+    public Engine(int tableSize, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1, not " + threads);
+        }
+        this.table = new TranspositionTable(tableSize);
+        this.threads = threads;
+    }
+
+    /**
+     * Same as {@link #search(ChessGame, long, int)} with no depth limit.
+     */
+    public SearchResult search(ChessGame game, long budgetMillis) {
+        return search(game, budgetMillis, MAX_PLY);
+    }
+
+    /**
+     * Finds the best move for the side to move. The game is not changed.
+     *
+     * @param budgetMillis time the search may take
+     * @param maxDepth     deepest iteration to run, in plies
+     * @return the best move found, with its score
+     */
+    public SearchResult search(ChessGame game, long budgetMillis, int maxDepth) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive, not " + budgetMillis);
+        }
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1, not " + maxDepth);
+        }
+        long start = System.nanoTime();
+        long budget = budgetMillis * 1_000_000;
+        // past half the budget the next iteration is unlikely to finish
+        long softDeadline = start + budget / 2;
+        long hardDeadline = start + budget;
+        int depth = Math.min(maxDepth, MAX_PLY);
+        AtomicBoolean stop = new AtomicBoolean();
+
+        Thread[] helpers = new Thread[threads - 1];
+        long[] helperNodes = new long[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            int helper = i;
+            Searcher searcher = new Searcher(game.copy(), table, stop);
+            helpers[i] = new Thread(() -> helperNodes[helper] =
+                    searcher.search(start, softDeadline, hardDeadline, 1 + helper % 2, depth).getNodes(),
+                    "engine-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+
+        SearchResult result;
+        try {
+            result = new Searcher(game.copy(), table, stop).search(start, softDeadline, hardDeadline, 1, depth);
+        } finally {
+            stop.set(true);
+        }
+        if (helpers.length == 0) {
+            return result;
+        }
+
+        long nodes = result.getNodes();
+        for (int i = 0; i < helpers.length; i++) {
+            join(helpers[i]);
+            nodes += helperNodes[i];
+        }
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Forgets every position searched so far.
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    // helpers stop within a few thousand positions of the stop flag, so this is brief
+    private static void join(Thread helper) {
+        try {
+            helper.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/**
+ * Static evaluation: material plus a bonus or penalty for each piece's square,
+ * tapered from middlegame to endgame values, as kept up to date by
+ * {@link ChessBoard#getEvaluation()}. Scores are in centipawns (a pawn is 100)
+ * from the side to move's point of view.
+ */
+final class Evaluation {
+
+    private Evaluation() {
+    }
+
+    /**
+     * @return the score of the position for the team whose turn it is
+     */
+    static int evaluate(ChessGame game) {
+        int score = game.getBoard().getEvaluation();
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,68 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * What a search found: the move to play, its score and how hard the engine looked.
+ */
+public final class SearchResult {
+
+    private final ChessMove bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    SearchResult(ChessMove bestMove, int score, int depth, long nodes, long timeMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s,score=%d,depth=%d,nodes=%d,time=%dms", bestMove, score, depth, nodes, timeMillis);
+    }
+
+    /**
+     * @return the move to play, or null if the side to move has no legal move
+     */
+    public ChessMove getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return the score of the best move in centipawns for the side to move; mate
+     * scores are within {@link Engine#MAX_PLY} of {@link Engine#MATE}
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return true if the score is a forced mate, for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Engine.MATE - Engine.MAX_PLY;
+    }
+
+    /**
+     * @return the deepest iteration that finished, in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return positions visited, quiescence included
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
@@ -0,0 +1,394 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PackedMove;
+import chess.StaticExchange;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One search over its own copy of a game: iterative deepening over a negamax
+ * alpha-beta search, with a quiescence search on captures at the leaves. Moves
+ * are made and taken back on the copy, and all buffers are allocated up front,
+ * so a search allocates nothing per node.
+ * <p>
+ * Move ordering tries the transposition table's move first, then captures by
+ * most valuable victim and least valuable attacker, then promotions, then the
+ * two quiet moves that last caused a cutoff at the same ply (killers), then
+ * captures that lose material by static exchange evaluation, then other quiet
+ * moves by how often they have caused cutoffs (history). The quiescence search
+ * skips losing captures altogether.
+ * <p>
+ * Several searchers may share one table and one stop flag, each on its own copy
+ * of the game; see {@link Engine} for how they split the work.
+ */
+final class Searcher {
+
+    private static final int TABLE_MOVE_ORDER = 1_000_000;
+    private static final int CAPTURE_ORDER = 100_000;
+    private static final int PROMOTION_ORDER = 95_000;
+    private static final int KILLER_ORDER = 90_000;
+    // plus the (negative) exchange result
+    private static final int LOSING_CAPTURE_ORDER = 70_000;
+    private static final int HISTORY_LIMIT = 60_000;
+
+    private final ChessGame game;
+    private final ChessBoard board;
+    private final TranspositionTable table;
+    // set by whichever searcher finishes the search for all of them
+    private final AtomicBoolean stop;
+
+    // per ply: moves, their ordering scores, and killer moves
+    private final int[][] moves = new int[Engine.MAX_PLY + 1][ChessGame.MAX_MOVES];
+    private final int[][] orders = new int[Engine.MAX_PLY + 1][ChessGame.MAX_MOVES];
+    private final int[][] killers = new int[Engine.MAX_PLY + 1][2];
+    // cutoff counts indexed by side to move, then from * 64 + to
+    private final int[][] history = new int[2][64 * 64];
+
+    private long deadline;
+    private long nodes;
+    private boolean stopped;
+    private int rootBest;
+
+    /**
+     * @param game a game this searcher may change; it is left as it was found
+     */
+    Searcher(ChessGame game, TranspositionTable table, AtomicBoolean stop) {
+        this.game = game;
+        this.board = game.getBoard();
+        this.table = table;
+        this.stop = stop;
+    }
+
+    /**
+     * Searches one ply deeper at a time until the hard deadline, the soft deadline
+     * (past which another iteration is unlikely to finish), the depth limit or the
+     * stop flag.
+     *
+     * @param firstDepth depth of the first iteration; helpers start deeper than
+     *                   the main searcher so they are not all on the same iteration
+     */
+    SearchResult search(long start, long softDeadline, long hardDeadline, int firstDepth, int maxDepth) {
+        deadline = hardDeadline;
+        int count = game.generateMoves(moves[0], 0);
+        if (count == 0) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -Engine.MATE : 0;
+            return new SearchResult(null, score, 0, 0, elapsedMillis(start));
+        }
+
+        int bestMove = moves[0][0];
+        int bestScore = 0;
+        int completed = 0;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            int score = searchRoot(depth, count);
+            if (stopped) {
+                // the previous best is searched first, so any best found before time ran out improves on it
+                if (rootBest != 0) {
+                    bestMove = rootBest;
+                }
+                break;
+            }
+            bestMove = rootBest;
+            bestScore = score;
+            completed = depth;
+            if (Engine.MATE - Math.abs(score) <= depth || System.nanoTime() > softDeadline) {
+                break;
+            }
+        }
+        return new SearchResult(PackedMove.toChessMove(bestMove), bestScore, completed, nodes, elapsedMillis(start));
+    }
+
+    private int searchRoot(int depth, int count) {
+        int previous = rootBest;
+        rootBest = 0;
+        scoreMoves(0, count, previous);
+
+        int alpha = -Engine.INFINITY;
+        int beta = Engine.INFINITY;
+        int best = -Engine.INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(0, i, count);
+            game.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, -beta, -alpha, 1);
+            } else {
+                score = -negamax(depth - 1, -alpha - 1, -alpha, 1);
+                if (score > alpha && !stopped) {
+                    score = -negamax(depth - 1, -beta, -alpha, 1);
+                }
+            }
+            game.unmakeMove();
+            if (stopped) {
+                break;
+            }
+            if (score > best) {
+                best = score;
+                rootBest = move;
+                alpha = Math.max(alpha, score);
+            }
+        }
+        if (!stopped) {
+            table.store(game.getPositionKey(), rootBest, best, depth, TranspositionTable.EXACT);
+        }
+        return best;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0 && (System.nanoTime() > deadline || stop.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (game.getHalfmoveClock() >= 100 || game.repetitions() > 1) {
+            return 0;
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (inCheck) {
+            // look one ply further so checks do not hide threats past the horizon
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (ply >= Engine.MAX_PLY) {
+            return Evaluation.evaluate(game);
+        }
+
+        long key = game.getPositionKey();
+        long entry = table.probe(key);
+        int tableMove = 0;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int count = game.generateMoves(moves[ply], 0);
+        if (count == 0) {
+            return inCheck ? -Engine.MATE + ply : 0;
+        }
+        scoreMoves(ply, count, tableMove);
+
+        int originalAlpha = alpha;
+        int best = -Engine.INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(ply, i, count);
+            boolean quiet = isQuiet(move);
+            game.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                // late quiet moves are searched a ply shallower with a null window first
+                int reduction = depth >= 3 && i >= 3 && quiet && !inCheck ? 1 : 0;
+                score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && (reduction > 0 || score < beta) && !stopped) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        if (quiet) {
+                            rememberCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best <= originalAlpha ? TranspositionTable.UPPER : TranspositionTable.EXACT;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches captures and promotions only, so the evaluation is never taken in
+     * the middle of an exchange. The side to move may also "stand pat" on the
+     * static score, unless it is in check, when every evasion is searched.
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0 && (System.nanoTime() > deadline || stop.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= Engine.MAX_PLY) {
+            return Evaluation.evaluate(game);
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        int best = -Engine.INFINITY;
+        if (!inCheck) {
+            best = Evaluation.evaluate(game);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        int[] buffer = moves[ply];
+        int count = game.generateMoves(buffer, 0);
+        if (count == 0) {
+            return inCheck ? -Engine.MATE + ply : 0;
+        }
+        scoreMoves(ply, count, 0);
+        if (!inCheck) {
+            // keep only the captures that do not lose material, and promotions
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (orders[ply][i] >= PROMOTION_ORDER) {
+                    buffer[kept] = buffer[i];
+                    orders[ply][kept++] = orders[ply][i];
+                }
+            }
+            count = kept;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(ply, i, count);
+            game.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void scoreMoves(int ply, int count, int tableMove) {
+        int[] buffer = moves[ply];
+        int[] order = orders[ply];
+        int[] sideHistory = history[game.getTeamTurn().ordinal()];
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            ChessPiece attacker = board.pieceAt(from);
+            ChessPiece victim = board.pieceAt(to);
+            ChessPiece.PieceType promotion = PackedMove.promotion(move);
+            if (move == tableMove) {
+                order[i] = TABLE_MOVE_ORDER;
+            } else if (victim != null) {
+                int victimValue = victim.getPieceType().getValue();
+                int attackerValue = attacker.getPieceType().getValue();
+                // taking something worth at least the attacker cannot lose, so skip the exchange
+                int exchange = attackerValue <= victimValue ? 0 : StaticExchange.evaluate(board, move);
+                order[i] = exchange < 0 ? LOSING_CAPTURE_ORDER + exchange
+                        : CAPTURE_ORDER + victimValue - attackerValue / 10;
+            } else if (attacker.getPieceType() == ChessPiece.PieceType.PAWN && (from & 7) != (to & 7)) {
+                // en passant
+                order[i] = CAPTURE_ORDER + 90;
+            } else if (promotion != null) {
+                order[i] = PROMOTION_ORDER + promotion.getValue();
+            } else if (move == killers[ply][0]) {
+                order[i] = KILLER_ORDER;
+            } else if (move == killers[ply][1]) {
+                order[i] = KILLER_ORDER - 1;
+            } else {
+                order[i] = sideHistory[from * 64 + to];
+            }
+        }
+    }
+
+    // neither a capture, en passant included, nor a promotion
+    private boolean isQuiet(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        return board.pieceAt(to) == null && PackedMove.promotion(move) == null
+                && (board.pieceAt(from).getPieceType() != ChessPiece.PieceType.PAWN || (from & 7) == (to & 7));
+    }
+
+    /**
+     * Moves the best-ordered remaining move into slot i and returns it, so moves
+     * that are never reached after a cutoff are never sorted.
+     */
+    private int pickNext(int ply, int i, int count) {
+        int[] buffer = moves[ply];
+        int[] order = orders[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (order[j] > order[best]) {
+                best = j;
+            }
+        }
+        int move = buffer[best];
+        buffer[best] = buffer[i];
+        buffer[i] = move;
+        int score = order[best];
+        order[best] = order[i];
+        order[i] = score;
+        return move;
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] sideHistory = history[game.getTeamTurn().ordinal()];
+        int index = PackedMove.from(move) * 64 + PackedMove.to(move);
+        sideHistory[index] += depth * depth;
+        if (sideHistory[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] /= 2;
+            }
+        }
+    }
+
+    // mate scores are stored relative to the position, not the root
+    private static int toTable(int score, int ply) {
+        if (score >= Engine.MATE - Engine.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Engine.MATE + Engine.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= Engine.MATE - Engine.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Engine.MATE + Engine.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
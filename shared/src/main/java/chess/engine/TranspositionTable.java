@@ -0,0 +1,91 @@
+package chess.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers the result of searching each position: best move, score, depth and
+ * whether the score is exact or only a bound. One slot per key index, with the
+ * newest entry always taking the slot.
+ * <p>
+ * Each entry packs into one long: bits 0-15 the move, 16-31 the score, 32-39 the
+ * depth and 40-41 the bound type. The bound types start at 1, so an empty slot
+ * (0) never looks like an entry.
+ * <p>
+ * The table may be shared by several searchers without locks. A slot holds two
+ * longs, the entry and the entry XORed with the position key, each read and
+ * written atomically; a slot torn by two threads writing at once fails the key
+ * check and reads as empty instead of giving another position's entry.
+ */
+final class TranspositionTable {
+
+    static final int EXACT = 1;
+    // the score is at least this much (the search failed high)
+    static final int LOWER = 2;
+    // the score is at most this much (the search failed low)
+    static final int UPPER = 3;
+
+    // key ^ entry, entry pairs
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    TranspositionTable(int size) {
+        if (size < 1 || size > 1 << 28) {
+            throw new IllegalArgumentException("Table size must be between 1 and 2^28, not " + size);
+        }
+        int capacity = Integer.highestOneBit(size);
+        if (capacity < size) {
+            capacity <<= 1;
+        }
+        slots = new AtomicLongArray(capacity * 2);
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the packed entry for the position, or 0 if there is none
+     */
+    long probe(long key) {
+        int index = ((int) key & mask) * 2;
+        // opaque access is atomic without the fences of volatile; the key check catches any tearing
+        long entry = slots.getOpaque(index + 1);
+        return (slots.getOpaque(index) ^ entry) == key ? entry : 0L;
+    }
+
+    void store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) key & mask) * 2;
+        long entry = pack(move, score, depth, bound);
+        slots.setOpaque(index, key ^ entry);
+        slots.setOpaque(index + 1, entry);
+    }
+
+    /**
+     * Empties the table; not to be called during a search.
+     */
+    void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0L);
+        }
+    }
+
+    static long pack(int move, int score, int depth, int bound) {
+        return (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) Math.max(depth, 0) << 32)
+                | ((long) bound << 40);
+    }
+
+    static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> 40) & 3;
+    }
+}
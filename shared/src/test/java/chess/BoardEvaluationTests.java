@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BoardEvaluationTests {
+
+    @Test
+    @DisplayName("Starting Position Is Even")
+    public void startingPosition() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        Assertions.assertEquals(0, board.getEvaluation(), "Starting position should be level");
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase(), "Every piece is still on the board");
+        Assertions.assertEquals(0, new ChessBoard().getPhase(), "Empty board has no phase");
+        Assertions.assertEquals(0, new ChessBoard().getEvaluation(), "Empty board has no score");
+    }
+
+    @Test
+    @DisplayName("Running Score Matches A Fresh Board")
+    public void incrementalMatchesScratch() {
+        Random random = new Random(29);
+        for (int game = 0; game < 50; game++) {
+            ChessGame chessGame = new ChessGame();
+            int plies = RandomGames.play(chessGame, random, 150, position -> {
+                ChessBoard board = position.getBoard();
+                ChessBoard fresh = Fen.parse(Fen.toFen(position)).getBoard();
+                Assertions.assertEquals(fresh.getEvaluation(), board.getEvaluation(), "Score drifted on " + Fen.toFen(position));
+                Assertions.assertEquals(fresh.getPhase(), board.getPhase(), "Phase drifted on " + Fen.toFen(position));
+            });
+            for (; plies > 0; plies--) {
+                chessGame.unmakeMove();
+            }
+            Assertions.assertEquals(0, chessGame.getBoard().getEvaluation(), "Taking every move back should restore the score");
+            Assertions.assertEquals(PieceSquareTables.MAX_PHASE, chessGame.getBoard().getPhase(), "Taking every move back should restore the phase");
+        }
+    }
+
+    @Test
+    @DisplayName("Mirrored Position Scores The Opposite")
+    public void mirrored() {
+        ChessBoard board = Fen.parse("r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQ1RK1 w kq - 4 5").getBoard();
+        ChessBoard mirror = Fen.parse("rnbq1rk1/pppp1ppp/5n2/2b1p3/2B1P3/2N2N2/PPPP1PPP/R1BQK2R b KQ - 4 5").getBoard();
+
+        Assertions.assertEquals(-board.getEvaluation(), mirror.getEvaluation(), "Colours swapped should negate the score");
+        Assertions.assertEquals(board.getPhase(), mirror.getPhase());
+    }
+
+    @Test
+    @DisplayName("Endgame King Wants The Centre")
+    public void tapered() {
+        // kings and pawns only: the endgame tables alone apply
+        ChessBoard active = Fen.parse("8/8/8/8/3K4/8/4P3/k7 w - - 0 1").getBoard();
+        ChessBoard passive = Fen.parse("8/8/8/8/8/8/4P3/k6K w - - 0 1").getBoard();
+        Assertions.assertEquals(0, active.getPhase());
+        Assertions.assertTrue(active.getEvaluation() > passive.getEvaluation(),
+                "Central king should score better once the pieces are off");
+
+        // with every piece on, the middlegame tables keep the king home
+        ChessBoard home = Fen.parse(Fen.STARTING_POSITION).getBoard();
+        ChessBoard central = Fen.parse("rnbqkbnr/pppppppp/8/8/8/4K3/PPPPPPPP/RNBQ1BNR w kq - 0 1").getBoard();
+        Assertions.assertTrue(home.getEvaluation() > central.getEvaluation(),
+                "King should stay home with the pieces on");
+    }
+}
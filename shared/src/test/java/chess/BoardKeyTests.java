@@ -0,0 +1,39 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BoardKeyTests {
+
+    @Test
+    @DisplayName("Equal Boards Have Equal Keys")
+    public void equalBoards() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard other = new ChessBoard();
+        other.resetBoard();
+
+        Assertions.assertEquals(board.getBoardKey(), other.getBoardKey(), "Same pieces should give the same key");
+        Assertions.assertEquals(board.getBoardKey().hashCode(), other.getBoardKey().hashCode(),
+                "Equal keys should hash the same");
+
+        other.addPiece(new ChessPosition(2, 1), null);
+        Assertions.assertNotEquals(board.getBoardKey(), other.getBoardKey(), "Different pieces should change the key");
+    }
+
+    @Test
+    @DisplayName("Key Round Trips Through Bytes")
+    public void roundTrip() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        board.addPiece(new ChessPosition(5, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+
+        byte[] bytes = board.getBoardKey().toByteArray();
+        Assertions.assertEquals(32, bytes.length, "A board key should be 32 bytes");
+
+        BoardKey key = BoardKey.fromByteArray(bytes);
+        Assertions.assertEquals(board.getBoardKey(), key, "Key changed after a trip through bytes");
+        Assertions.assertEquals(board, key.toBoard(), "Board rebuilt from the key should match");
+    }
+}
@@ -0,0 +1,48 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessBoardCopyTests {
+
+    @Test
+    @DisplayName("Copy Matches Original")
+    public void copyMatches() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard copy = board.copy();
+
+        Assertions.assertEquals(board, copy, "Copy should equal the board it was taken from");
+        Assertions.assertEquals(board.getZobristKey(), copy.getZobristKey(), "Copy should have the same key");
+    }
+
+    @Test
+    @DisplayName("Changing Original Leaves Copy Alone")
+    public void originalChangeIsolated() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard copy = board.copy();
+        ChessPosition position = new ChessPosition(4, 4);
+
+        board.addPiece(position, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        Assertions.assertNull(copy.getPiece(position), "Copy saw a piece added to the original");
+        Assertions.assertNotEquals(board, copy, "Boards should differ after the original changed");
+    }
+
+    @Test
+    @DisplayName("Changing Copy Leaves Original Alone")
+    public void copyChangeIsolated() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard copy = board.copy();
+        ChessPosition position = new ChessPosition(1, 5);
+
+        copy.addPiece(position, null);
+
+        Assertions.assertNotNull(board.getPiece(position), "Original lost a piece removed from the copy");
+        Assertions.assertEquals(position, board.getKingPosition(ChessGame.TeamColor.WHITE),
+                "Original should still know where its king is");
+    }
+}
@@ -0,0 +1,117 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameRulesTests {
+
+    private static final ChessMove[] KNIGHT_SHUFFLE = {
+            new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+            new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+            new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+            new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)
+    };
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (ChessMove move : KNIGHT_SHUFFLE) {
+            game.makeMove(move);
+        }
+        Assertions.assertEquals(2, game.repetitions(), "Starting position should have occurred twice");
+        Assertions.assertFalse(game.isThreefoldRepetition(), "Two occurrences are not a threefold repetition");
+
+        for (ChessMove move : KNIGHT_SHUFFLE) {
+            game.makeMove(move);
+        }
+        Assertions.assertTrue(game.isThreefoldRepetition(), "Starting position should have occurred three times");
+
+        game.unmakeMove();
+        Assertions.assertFalse(game.isThreefoldRepetition(), "Unmaking should undo the repetition");
+    }
+
+    @Test
+    @DisplayName("Moves Off The Board Are Rejected")
+    public void offBoardMoves() {
+        ChessGame game = new ChessGame();
+        ChessBoard before = game.getBoard().copy();
+        ChessPosition rook = new ChessPosition(1, 1);
+        ChessPosition[] offBoard = {new ChessPosition(1, 9), new ChessPosition(1, 0),
+                new ChessPosition(0, 1), new ChessPosition(9, 1), new ChessPosition(-3, 2)};
+
+        for (ChessPosition end : offBoard) {
+            Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(new ChessMove(rook, end, null)),
+                    "Move to " + end + " should be rejected");
+            Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(new ChessMove(end, rook, null)),
+                    "Move from " + end + " should be rejected");
+        }
+        Assertions.assertEquals(before, game.getBoard(), "Rejected moves should not change the board");
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn(), "Rejected moves should not pass the turn");
+    }
+
+    @Test
+    @DisplayName("Pawn Moves Reset Repetition And Fifty-Move Counts")
+    public void irreversibleMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 24; i++) {
+            game.makeMove(KNIGHT_SHUFFLE[i % KNIGHT_SHUFFLE.length]);
+        }
+        Assertions.assertEquals(24, game.getHalfmoveClock(), "Knight moves should count toward the fifty-move rule");
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(0, game.getHalfmoveClock(), "A pawn move should reset the clock");
+        Assertions.assertEquals(1, game.repetitions(), "Positions before a pawn move cannot repeat");
+
+        game.unmakeMove();
+        Assertions.assertEquals(24, game.getHalfmoveClock(), "Unmaking should restore the clock");
+    }
+
+    @Test
+    @DisplayName("Fifty-Move Draw")
+    public void fiftyMoveDraw() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 99; i++) {
+            game.makeMove(KNIGHT_SHUFFLE[i % KNIGHT_SHUFFLE.length]);
+        }
+        Assertions.assertFalse(game.isFiftyMoveDraw(), "99 half moves are not yet a draw");
+        game.makeMove(KNIGHT_SHUFFLE[99 % KNIGHT_SHUFFLE.length]);
+        Assertions.assertTrue(game.isFiftyMoveDraw(), "100 half moves without a capture or pawn move is a draw");
+    }
+
+    @Test
+    @DisplayName("Castling And En Passant Unmake Cleanly")
+    public void unmakeSpecialMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove[] moves = {
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 1), new ChessPosition(6, 1), null),
+                new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null),
+                new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null),
+                new ChessMove(new ChessPosition(7, 3), new ChessPosition(6, 4), null),
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(6, 1), new ChessPosition(5, 1), null),
+                new ChessMove(new ChessPosition(1, 6), new ChessPosition(2, 5), null),
+                new ChessMove(new ChessPosition(5, 1), new ChessPosition(4, 1), null),
+                new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null)
+        };
+        ChessBoard[] boards = new ChessBoard[moves.length];
+        long[] keys = new long[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            boards[i] = game.getBoard().copy();
+            keys[i] = game.getPositionKey();
+            game.makeMove(moves[i]);
+        }
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(new ChessPosition(1, 6)), "Rook should have jumped the king");
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(5, 4)), "Pawn taken en passant should be gone");
+
+        for (int i = moves.length - 1; i >= 0; i--) {
+            game.unmakeMove();
+            Assertions.assertEquals(boards[i], game.getBoard(), "Wrong board after unmaking " + moves[i]);
+            Assertions.assertEquals(keys[i], game.getPositionKey(), "Wrong key after unmaking " + moves[i]);
+        }
+    }
+}
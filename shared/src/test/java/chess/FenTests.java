@@ -0,0 +1,107 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class FenTests {
+
+    private static final String[] POSITIONS = {
+            Fen.STARTING_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3"
+    };
+
+    @Test
+    @DisplayName("Positions Round Trip")
+    public void roundTrip() {
+        StringBuilder out = new StringBuilder();
+        for (String fen : POSITIONS) {
+            out.setLength(0);
+            Assertions.assertEquals(fen, Fen.write(Fen.parse(fen), out).toString(), "Wrong FEN written back");
+        }
+        Assertions.assertEquals(new ChessGame(), Fen.parse(Fen.STARTING_POSITION), "Should load the starting position");
+    }
+
+    @Test
+    @DisplayName("Load From Bytes Into An Existing Game")
+    public void loadBytes() {
+        ChessGame game = new ChessGame();
+        for (String fen : POSITIONS) {
+            ByteBuffer bytes = ByteBuffer.wrap(("  " + fen + "\0").getBytes(StandardCharsets.US_ASCII));
+            bytes.position(2).limit(bytes.limit() - 1);
+            Fen.load(bytes, game);
+            Assertions.assertEquals(2, bytes.position(), "Loading should not move the buffer");
+            Assertions.assertEquals(Fen.parse(fen), game, "Bytes should load like text");
+            Assertions.assertEquals(fen, Fen.toFen(game), "Wrong FEN written back");
+        }
+    }
+
+    @Test
+    @DisplayName("Game State After Moves")
+    public void afterMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        // no black pawn can take en passant, so no square is recorded
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", Fen.toFen(game));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("Missing Move Counters Default")
+    public void missingCounters() {
+        ChessGame game = Fen.parse("8/8/8/8/8/8/8/K6k b - -");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn(), "Wrong side to move");
+        Assertions.assertEquals(0, game.getHalfmoveClock(), "Halfmove clock should default to 0");
+        Assertions.assertEquals(1, game.getFullmoveNumber(), "Full move number should default to 1");
+    }
+
+    @Test
+    @DisplayName("Invalid FEN Is Rejected")
+    public void invalid() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkz - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 99999999999 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 99999999999",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra"
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen), "Should reject: " + fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid FEN Leaves The Game Alone")
+    public void invalidKeepsGame() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        String before = Fen.toFen(game);
+        String[] invalid = {
+                "8/8/8/8/8/8/8/K6k x - - 0 1",
+                "8/8/8/8/8/8/8/K6k w - - 0 x",
+                "8/8/8/8/8/8/8/K6k w - - " + ((long) Integer.MAX_VALUE + 1) + " 1"
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load(fen, game), "Should reject: " + fen);
+            Assertions.assertEquals(before, Fen.toFen(game), "Failed load should not touch the game: " + fen);
+        }
+
+        // the move from before the failed loads can still be taken back
+        game.unmakeMove();
+        Assertions.assertEquals(new ChessGame(), game, "Unmaking should return to the start");
+    }
+}
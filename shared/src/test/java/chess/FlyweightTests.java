@@ -0,0 +1,61 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlyweightTests {
+
+    @Test
+    @DisplayName("Pieces Are Shared")
+    public void pieces() {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                ChessPiece piece = ChessPiece.of(color, type);
+                Assertions.assertSame(piece, ChessPiece.of(color, type), "Same piece should be the same instance");
+                Assertions.assertEquals(color, piece.getTeamColor());
+                Assertions.assertEquals(type, piece.getPieceType());
+
+                ChessPiece constructed = new ChessPiece(color, type);
+                Assertions.assertEquals(constructed, piece, "Shared piece should equal a constructed one");
+                Assertions.assertEquals(constructed.hashCode(), piece.hashCode());
+            }
+        }
+        Assertions.assertNotEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN), "Colors should differ");
+    }
+
+    @Test
+    @DisplayName("Positions Are Shared On The Board")
+    public void positions() {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                Assertions.assertSame(position, ChessPosition.of(row, col), "Same square should be the same instance");
+                Assertions.assertEquals(new ChessPosition(row, col), position, "Shared position should equal a constructed one");
+                Assertions.assertEquals(new ChessPosition(row, col).hashCode(), position.hashCode());
+            }
+        }
+
+        // off the board: still a value, just not cached
+        ChessPosition offBoard = ChessPosition.of(0, 9);
+        Assertions.assertNotSame(offBoard, ChessPosition.of(0, 9), "Off-board positions are not cached");
+        Assertions.assertEquals(ChessPosition.of(0, 9), offBoard, "Off-board positions still compare by value");
+        Assertions.assertEquals(0, offBoard.getRow());
+        Assertions.assertEquals(9, offBoard.getColumn());
+    }
+
+    @Test
+    @DisplayName("Board Hands Out Shared Instances")
+    public void boardUsesShared() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                board.getPiece(new ChessPosition(1, 5)), "Board should hold the shared piece");
+
+        // a piece added with the constructor still reads back equal
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
+                board.getPiece(ChessPosition.of(4, 4)));
+    }
+}
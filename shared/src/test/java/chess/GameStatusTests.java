@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameStatusTests {
+
+    @Test
+    @DisplayName("Status Of The Starting Position")
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        GameStatus status = game.evaluateStatus();
+
+        Assertions.assertEquals(new GameStatus(ChessGame.TeamColor.WHITE, false, 20), status, "Wrong starting status");
+        Assertions.assertSame(status, game.evaluateStatus(), "Status should be reused until the next move");
+    }
+
+    @Test
+    @DisplayName("Status Follows Moves")
+    public void foolsMate() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        GameStatus before = game.evaluateStatus();
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+
+        GameStatus status = game.evaluateStatus();
+        Assertions.assertNotSame(before, status, "A move should invalidate the status");
+        Assertions.assertTrue(status.isInCheck(), "White should be in check");
+        Assertions.assertTrue(status.isCheckmate(), "White should be checkmated");
+        Assertions.assertFalse(status.isStalemate(), "Checkmate is not stalemate");
+        Assertions.assertEquals(0, status.getLegalMoveCount(), "Checkmated side has no moves");
+
+        game.unmakeMove();
+        Assertions.assertEquals(before, game.evaluateStatus(), "Unmaking should restore the status");
+    }
+
+    @Test
+    @DisplayName("Stalemate Status")
+    public void stalemate() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(6, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        GameStatus status = game.evaluateStatus();
+        Assertions.assertTrue(status.isStalemate(), "Black should be stalemated");
+        Assertions.assertFalse(status.isInCheck(), "Stalemated side is not in check");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, status.getTeamTurn(), "Status should describe black");
+    }
+
+    @Test
+    @DisplayName("Status Follows A New Board")
+    public void setBoard() {
+        ChessGame game = new ChessGame();
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.WHITE), "Starting position is not mate");
+
+        // fool's mate, white to move
+        game.setBoard(Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3").getBoard());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE), "New board should be checked afresh");
+        Assertions.assertTrue(game.evaluateStatus().isInCheck(), "White should be in check on the new board");
+    }
+}
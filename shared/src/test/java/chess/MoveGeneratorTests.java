@@ -0,0 +1,29 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class MoveGeneratorTests {
+
+    @Test
+    @DisplayName("Early Exit Agrees With Full Generation")
+    public void hasLegalMoveMatchesGenerator() {
+        Random random = new Random(17);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int positions = 0;
+        for (int game = 0; game < 200; game++) {
+            positions += 1 + RandomGames.play(new ChessGame(), random, 199, chessGame -> {
+                ChessBoard board = chessGame.getBoard();
+                ChessGame.TeamColor other = ChessGame.opponent(chessGame.getTeamTurn());
+                Assertions.assertEquals(MoveGenerator.legalMoves(board, other, -1L, moves, 0) > 0,
+                        chessGame.hasAnyLegalMove(other), "Wrong answer for " + other + " on " + Fen.toFen(chessGame));
+                Assertions.assertEquals(chessGame.generateMoves(moves, 0) > 0, chessGame.hasAnyLegalMove(chessGame.getTeamTurn()),
+                        "Wrong answer for the side to move on " + Fen.toFen(chessGame));
+            });
+        }
+        Assertions.assertTrue(positions > 10000, "Too few positions were checked");
+    }
+}
@@ -0,0 +1,72 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class MoveListTests {
+
+    @Test
+    @DisplayName("Moves Keep Insertion Order")
+    public void indexedAccess() {
+        MoveList list = new MoveList(1);
+        List<ChessMove> expected = new ArrayList<>();
+        for (int col = 1; col <= 8; col++) {
+            ChessMove move = new ChessMove(new ChessPosition(7, col), new ChessPosition(8, col), ChessPiece.PieceType.QUEEN);
+            list.add(move);
+            expected.add(move);
+        }
+
+        Assertions.assertEquals(expected.size(), list.size(), "Wrong size after growing");
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i), list.get(i), "Wrong move at index " + i);
+            Assertions.assertEquals(PackedMove.of(expected.get(i)), list.getPacked(i), "Wrong packed move at index " + i);
+        }
+        Assertions.assertEquals(expected, new ArrayList<>(list), "Iteration should follow insertion order");
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(expected.size()));
+    }
+
+    @Test
+    @DisplayName("Contains And Remove")
+    public void containsAndRemove() {
+        MoveList list = new MoveList();
+        ChessMove first = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove second = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+        list.add(first);
+        list.add(second);
+
+        Assertions.assertTrue(list.contains(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)),
+                "Equal move should be found");
+        Assertions.assertFalse(list.contains(new ChessMove(new ChessPosition(2, 5), new ChessPosition(3, 5), null)),
+                "Missing move should not be found");
+        // (2,5) -> (4,5) and (2,5) -> (3,13) would pack the same way
+        ChessMove offBoard = new ChessMove(new ChessPosition(2, 5), new ChessPosition(3, 13), null);
+        Assertions.assertFalse(list.contains(offBoard), "Off-board move should not be found");
+        Assertions.assertFalse(list.remove(offBoard), "Off-board move should not be removed");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> list.add(offBoard), "Off-board move should not be added");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> list.add(new ChessMove(new ChessPosition(9, 5), new ChessPosition(8, 5), null)), "Row 9 should not be added");
+        Assertions.assertEquals(2, list.size(), "Rejected moves should not be stored");
+
+        Iterator<ChessMove> iterator = list.iterator();
+        iterator.next();
+        iterator.remove();
+        Assertions.assertEquals(1, list.size(), "Iterator remove should shrink the list");
+        Assertions.assertEquals(second, list.get(0), "Remaining moves should shift down");
+        Assertions.assertTrue(list.remove(second), "Remove should find the move");
+        Assertions.assertTrue(list.isEmpty(), "List should be empty");
+    }
+
+    @Test
+    @DisplayName("Game Returns Move Lists")
+    public void gameMoves() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(20, game.legalMoves().size(), "Wrong number of opening moves");
+        Assertions.assertInstanceOf(MoveList.class, game.validMoves(new ChessPosition(2, 1)),
+                "validMoves should return a MoveList");
+    }
+}
@@ -0,0 +1,49 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelPerftTests {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Parallel Perft Matches Published Counts")
+    public void perft() {
+        ChessGame game = new ChessGame();
+        for (int hashEntries : new int[]{0, 1 << 16}) {
+            ParallelPerft perft = new ParallelPerft(ForkJoinPool.commonPool(), hashEntries);
+            Assertions.assertEquals(4865609, perft.perft(game, 5), "Wrong depth 5 count with " + hashEntries + " entries");
+            Assertions.assertEquals(4085603, perft.perft(Fen.parse(KIWIPETE), 4),
+                    "Wrong Kiwipete count with " + hashEntries + " entries");
+        }
+        Assertions.assertEquals(new ChessGame(), game, "Perft should not change the game");
+    }
+
+    @Test
+    @DisplayName("Parallel Divide Matches Divide")
+    public void divide() {
+        ChessGame game = Fen.parse(KIWIPETE);
+        ParallelPerft perft = new ParallelPerft(new ForkJoinPool(2), 1 << 12);
+        Assertions.assertEquals(Perft.divide(game, 3), perft.divide(game, 3), "Divide counts should match");
+        Assertions.assertEquals(Fen.parse(KIWIPETE), game, "Divide should not change the game");
+    }
+
+    @Test
+    @DisplayName("Copies Are Independent")
+    public void copy() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessGame copy = game.copy();
+        Assertions.assertEquals(game, copy, "Copy should be in the same position");
+
+        copy.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        Assertions.assertNotEquals(game, copy, "Moves on the copy should not reach the original");
+        copy.unmakeMove();
+        copy.unmakeMove();
+        Assertions.assertEquals(new ChessGame(), copy, "Copy should keep the original's move history");
+    }
+}
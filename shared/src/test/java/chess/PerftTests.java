@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Perft From Starting Position")
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        long[] expected = {1, 20, 400, 8902, 197281};
+        for (int depth = 0; depth < expected.length; depth++) {
+            Assertions.assertEquals(expected[depth], Perft.perft(game, depth), "Wrong node count at depth " + depth);
+        }
+        Assertions.assertEquals(new ChessGame(), game, "Perft should leave the game as it found it");
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    public void divideMatchesPerft() {
+        ChessGame game = new ChessGame();
+        long total = Perft.divide(game, 3).values().stream().mapToLong(Long::longValue).sum();
+        Assertions.assertEquals(20, Perft.divide(game, 3).size(), "Wrong number of first moves");
+        Assertions.assertEquals(Perft.perft(game, 3), total, "Divide counts should add up to perft");
+    }
+
+    @Test
+    @DisplayName("Perft With Castling, En Passant And Promotions")
+    public void specialMoves() {
+        assertPerft("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2039, 97862);
+        assertPerft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238);
+        assertPerft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467);
+        assertPerft("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1486, 62379);
+    }
+
+    private static void assertPerft(String fen, long... expected) {
+        ChessGame game = Fen.parse(fen);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            Assertions.assertEquals(expected[depth - 1], Perft.perft(game, depth),
+                    "Wrong node count at depth " + depth + " for " + fen);
+        }
+    }
+}
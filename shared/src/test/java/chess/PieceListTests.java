@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PieceListTests {
+
+    @Test
+    @DisplayName("King Position Follows The King")
+    public void kingPosition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessBoard board = game.getBoard();
+        Assertions.assertEquals(new ChessPosition(1, 5), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(new ChessPosition(8, 5), board.getKingPosition(ChessGame.TeamColor.BLACK));
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        Assertions.assertSame(ChessPosition.of(2, 5), game.getBoard().getKingPosition(ChessGame.TeamColor.WHITE),
+                "King move should update the cached square");
+        game.unmakeMove();
+        Assertions.assertEquals(new ChessPosition(1, 5), game.getBoard().getKingPosition(ChessGame.TeamColor.WHITE),
+                "Unmaking should restore the cached square");
+
+        // castling moves the king two squares
+        game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1");
+        game.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(8, 3), null));
+        Assertions.assertEquals(new ChessPosition(8, 3), game.getBoard().getKingPosition(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("King Position Through addPiece")
+    public void kingPositionAddPiece() {
+        ChessBoard board = new ChessBoard();
+        Assertions.assertNull(board.getKingPosition(ChessGame.TeamColor.WHITE), "Empty board has no king");
+
+        board.addPiece(new ChessPosition(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        Assertions.assertEquals(new ChessPosition(4, 4), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        Assertions.assertNull(board.getKingPosition(ChessGame.TeamColor.BLACK), "Black still has no king");
+
+        // overwriting the king with another piece removes it
+        board.addPiece(new ChessPosition(4, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        Assertions.assertNull(board.getKingPosition(ChessGame.TeamColor.WHITE), "Captured king should be gone");
+    }
+
+    @Test
+    @DisplayName("Piece Counts Follow Captures")
+    public void pieceCount() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(16, game.getBoard().getPieceCount(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(16, game.getBoard().getPieceCount(ChessGame.TeamColor.BLACK));
+
+        // 1. e4 d5 2. exd5
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        Assertions.assertEquals(16, game.getBoard().getPieceCount(ChessGame.TeamColor.WHITE), "Capturing side keeps its pieces");
+        Assertions.assertEquals(15, game.getBoard().getPieceCount(ChessGame.TeamColor.BLACK), "Captured pawn should be gone");
+
+        game.unmakeMove();
+        Assertions.assertEquals(16, game.getBoard().getPieceCount(ChessGame.TeamColor.BLACK), "Unmaking should restore the pawn");
+        Assertions.assertEquals(0, new ChessBoard().getPieceCount(ChessGame.TeamColor.WHITE), "Empty board has no pieces");
+    }
+}
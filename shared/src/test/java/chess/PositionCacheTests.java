@@ -0,0 +1,75 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class PositionCacheTests {
+
+    @Test
+    @DisplayName("Capacity Rounds Up To A Power Of Two")
+    public void capacity() {
+        Assertions.assertEquals(1024, new PositionCache(1000, PositionCache.ReplacementPolicy.ALWAYS_REPLACE)
+                .getCapacity(), "Capacity should round up to a power of two");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new PositionCache(0, PositionCache.ReplacementPolicy.ALWAYS_REPLACE));
+    }
+
+    @Test
+    @DisplayName("Games Share Cached Positions")
+    public void sharedAcrossGames() {
+        PositionCache cache = new PositionCache(64, PositionCache.ReplacementPolicy.KEEP_EXISTING);
+        ChessGame first = new ChessGame();
+        ChessGame second = new ChessGame();
+        Assertions.assertNull(first.getPositionCache(), "Caching should be off by default");
+        first.setPositionCache(cache);
+        second.setPositionCache(cache);
+        ChessPosition knight = new ChessPosition(1, 2);
+
+        Collection<ChessMove> generated = first.validMoves(knight);
+        Assertions.assertEquals(2, generated.size(), "Wrong number of knight moves");
+        Assertions.assertEquals(0, cache.getHits(), "First lookup should miss");
+        Assertions.assertEquals(new HashSet<>(generated), new HashSet<>(second.validMoves(knight)),
+                "Cached moves should match the generated ones");
+        Assertions.assertEquals(1, cache.getHits(), "Second game should hit the cached position");
+    }
+
+    @Test
+    @DisplayName("Colliding Positions Are Never Confused")
+    public void collisions() throws InvalidMoveException {
+        int[][] moves = {{2, 5, 4, 5}, {7, 5, 5, 5}, {1, 4, 5, 8}, {8, 2, 6, 3}, {1, 6, 4, 3}, {8, 7, 6, 6}, {5, 8, 7, 6}};
+        for (PositionCache.ReplacementPolicy policy : PositionCache.ReplacementPolicy.values()) {
+            // a single slot puts every position in the same place
+            ChessGame game = new ChessGame();
+            game.setPositionCache(new PositionCache(1, policy));
+            for (int[] m : moves) {
+                assertMovesMatchGenerator(game, policy);
+                game.makeMove(new ChessMove(new ChessPosition(m[0], m[1]), new ChessPosition(m[2], m[3]), null));
+            }
+            Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK), "Black should be checkmated");
+            Assertions.assertFalse(game.isInStalemate(ChessGame.TeamColor.BLACK), "Checkmate is not stalemate");
+        }
+    }
+
+    private static void assertMovesMatchGenerator(ChessGame game, PositionCache.ReplacementPolicy policy) {
+        for (int square = 0; square < 64; square++) {
+            ChessPosition position = ChessPosition.of(square);
+            ChessPiece piece = game.getBoard().getPiece(position);
+            if (piece == null) {
+                continue;
+            }
+            int[] buffer = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.legalMoves(game.getBoard(), piece.getTeamColor(), Bitboards.bit(square), buffer, 0);
+            Set<ChessMove> expected = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                expected.add(PackedMove.toChessMove(buffer[i]));
+            }
+            Assertions.assertEquals(expected, new HashSet<>(game.validMoves(position)),
+                    "Moves differ at " + position + " with " + policy);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package chess;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Plays random legal moves, for tests that check some property holds in every
+ * position reached.
+ */
+final class RandomGames {
+
+    private RandomGames() {
+    }
+
+    /**
+     * Makes random legal moves until the game ends or maxPlies moves are made,
+     * handing the game to the visitor in every position, the last one included.
+     * The moves stay on the game's undo stack.
+     *
+     * @return the number of moves made
+     */
+    static int play(ChessGame game, Random random, int maxPlies, Consumer<ChessGame> visitor) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int plies = 0;
+        while (true) {
+            visitor.accept(game);
+            int count = game.generateMoves(moves, 0);
+            if (count == 0 || plies == maxPlies) {
+                return plies;
+            }
+            game.makeMove(moves[random.nextInt(count)]);
+            plies++;
+        }
+    }
+}
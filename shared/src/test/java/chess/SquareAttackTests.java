@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SquareAttackTests {
+
+    @Test
+    @DisplayName("Leapers Attack Their Squares")
+    public void leapers() {
+        ChessBoard board = Fen.parse("4k3/8/8/8/3N4/8/4p3/K7 w - - 0 1").getBoard();
+
+        // knight on d4
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(6, 5), ChessGame.TeamColor.WHITE), "Knight hits e6");
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(2, 3), ChessGame.TeamColor.WHITE), "Knight hits c2");
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(5, 5), ChessGame.TeamColor.WHITE), "Knight misses e5");
+
+        // black pawn on e2 attacks downward only
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(1, 4), ChessGame.TeamColor.BLACK), "Pawn hits d1");
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(1, 6), ChessGame.TeamColor.BLACK), "Pawn hits f1");
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(1, 5), ChessGame.TeamColor.BLACK), "Pawn does not attack ahead");
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(3, 4), ChessGame.TeamColor.BLACK), "Pawn does not attack backward");
+
+        // kings
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(2, 2), ChessGame.TeamColor.WHITE), "King hits b2");
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(7, 4), ChessGame.TeamColor.BLACK), "King hits d7");
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(6, 5), ChessGame.TeamColor.BLACK), "King does not reach e6");
+    }
+
+    @Test
+    @DisplayName("Sliders Stop At The First Piece")
+    public void sliders() {
+        ChessBoard board = Fen.parse("4k3/8/2n5/8/8/8/8/R3K2B w - - 0 1").getBoard();
+
+        // rook on a1: up the open a-file and along the first row
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(1, 4), ChessGame.TeamColor.WHITE), "Rook hits d1");
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(8, 1), ChessGame.TeamColor.WHITE), "Rook hits a8");
+        // bishop on h1, stopped by the knight on c6
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(4, 5), ChessGame.TeamColor.WHITE), "Bishop hits e4");
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(6, 3), ChessGame.TeamColor.WHITE), "Bishop hits the knight");
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(7, 2), ChessGame.TeamColor.WHITE), "Bishop is blocked from b7");
+        Assertions.assertFalse(board.isSquareAttacked(new ChessPosition(8, 1), ChessGame.TeamColor.BLACK), "Black has nothing on a8");
+
+        ChessBoard blocked = Fen.parse("4k3/8/8/8/8/8/7K/R1n5 w - - 0 1").getBoard();
+        Assertions.assertTrue(blocked.isSquareAttacked(new ChessPosition(1, 3), ChessGame.TeamColor.WHITE),
+                "The blocking piece itself is attacked");
+        Assertions.assertFalse(blocked.isSquareAttacked(new ChessPosition(1, 4), ChessGame.TeamColor.WHITE),
+                "Squares behind a blocker are not attacked by the rook");
+    }
+
+    @Test
+    @DisplayName("Agrees With Check Detection")
+    public void matchesCheck() {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/4q3/4K3 w - - 0 1");
+        ChessPosition king = game.getBoard().getKingPosition(ChessGame.TeamColor.WHITE);
+
+        Assertions.assertTrue(game.getBoard().isSquareAttacked(king, ChessGame.TeamColor.BLACK), "Queen attacks the king");
+        Assertions.assertTrue(game.isInCheck(ChessGame.TeamColor.WHITE), "White is in check");
+        Assertions.assertFalse(game.isInCheck(ChessGame.TeamColor.BLACK), "Black is not in check");
+    }
+}
@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class StaticExchangeTests {
+
+    @Test
+    @DisplayName("Free Pawn")
+    public void undefended() {
+        ChessBoard board = Fen.parse("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100, see(board, 1, 5, 5, 5), "Rook takes an undefended pawn");
+    }
+
+    @Test
+    @DisplayName("Exchange With X-Rays")
+    public void xRays() {
+        // Nxe5 Nxe5 Rxe5 Bxe5 and the queens behind the rook and bishop join in
+        ChessBoard board = Fen.parse("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1").getBoard();
+        Assertions.assertEquals(100 - 320, see(board, 3, 4, 5, 5), "Knight for a pawn");
+    }
+
+    @Test
+    @DisplayName("Defended Piece Is Not Worth Taking With A Queen")
+    public void losingCapture() {
+        ChessBoard board = Fen.parse("4k3/8/3p4/4n3/8/8/8/4QK2 w - - 0 1").getBoard();
+        Assertions.assertEquals(320 - 900, see(board, 1, 5, 5, 5), "Queen takes a knight and is taken by a pawn");
+        Assertions.assertEquals(0, see(board, 1, 5, 2, 5), "Quiet move to a safe square");
+    }
+
+    @Test
+    @DisplayName("En Passant And Promotion")
+    public void specialMoves() {
+        ChessBoard board = Fen.parse("4k3/1P6/8/3pP3/8/8/8/4K3 w - d6 0 1").getBoard();
+        Assertions.assertEquals(100, see(board, 5, 5, 6, 4), "En passant wins the pawn beside");
+        int promotion = PackedMove.of(Bitboards.square(7, 2), Bitboards.square(8, 2), ChessPiece.PieceType.QUEEN);
+        Assertions.assertEquals(800, StaticExchange.evaluate(board, promotion), "Safe promotion gains a queen for a pawn");
+    }
+
+    @Test
+    @DisplayName("Hanging Pieces")
+    public void hanging() {
+        // the knight on e5 is attacked by the queen and defended only by the d6 pawn;
+        // the rook on a5 is attacked by the queen and undefended
+        ChessBoard board = Fen.parse("4k3/8/3p4/r3n3/8/8/8/4QK2 b - - 0 1").getBoard();
+
+        Assertions.assertEquals(List.of(new ChessPosition(5, 1)), StaticExchange.hangingPieces(board, ChessGame.TeamColor.BLACK),
+                "Only the rook is hanging");
+        Assertions.assertFalse(StaticExchange.isHanging(board, new ChessPosition(5, 5)), "Knight is defended");
+        Assertions.assertFalse(StaticExchange.isHanging(board, new ChessPosition(1, 5)), "Queen is not attacked");
+        Assertions.assertFalse(StaticExchange.isHanging(board, new ChessPosition(4, 4)), "Empty square");
+
+        // a knight attacked by a pawn is lost even when defended
+        board = Fen.parse("4k3/8/3p4/4n3/3P4/8/8/4K3 w - - 0 1").getBoard();
+        Assertions.assertTrue(StaticExchange.isHanging(board, new ChessPosition(5, 5)), "Pawn attacks the knight");
+    }
+
+    private static int see(ChessBoard board, int fromRow, int fromCol, int toRow, int toCol) {
+        return StaticExchange.evaluate(board, new ChessMove(new ChessPosition(fromRow, fromCol),
+                new ChessPosition(toRow, toCol), null));
+    }
+}
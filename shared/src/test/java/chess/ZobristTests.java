@@ -0,0 +1,113 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Running Key Matches A Fresh Key")
+    public void incrementalMatchesScratch() {
+        Random random = new Random(5);
+        for (int game = 0; game < 50; game++) {
+            ChessGame chessGame = new ChessGame();
+            List<Long> keys = new ArrayList<>();
+            int plies = RandomGames.play(chessGame, random, 200, position -> {
+                ChessGame fresh = Fen.parse(Fen.toFen(position));
+                Assertions.assertEquals(fresh.getBoard().getZobristKey(), position.getBoard().getZobristKey(),
+                        "Board key drifted on " + Fen.toFen(position));
+                Assertions.assertEquals(fresh.getPositionKey(), position.getPositionKey(),
+                        "Position key drifted on " + Fen.toFen(position));
+                keys.add(position.getPositionKey());
+            });
+
+            // walk back, checking each key against the one seen on the way in
+            for (int ply = plies; ply > 0; ply--) {
+                chessGame.unmakeMove();
+                Assertions.assertEquals(keys.get(ply - 1), chessGame.getPositionKey(),
+                        "Unmaking should restore the key on " + Fen.toFen(chessGame));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Castling Rights Change The Key")
+    public void castlingRights() throws InvalidMoveException {
+        ChessGame game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        long start = game.getPositionKey();
+
+        // the rook goes out and back: same pieces, one right fewer
+        game.makeMove(new ChessMove(new ChessPosition(1, 8), new ChessPosition(2, 8), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 1), new ChessPosition(7, 1), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 8), new ChessPosition(1, 8), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), null));
+        Assertions.assertEquals(Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w Qk - 4 3").getPositionKey(), game.getPositionKey(),
+                "Key should match a fresh position with the rights that are left");
+        Assertions.assertNotEquals(start, game.getPositionKey(), "Lost castling rights should change the key");
+        Assertions.assertEquals(Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1").getBoard().getZobristKey(),
+                game.getBoard().getZobristKey(), "The pieces alone are back where they started");
+
+        // castling moves both king and rook
+        game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null));
+        Assertions.assertEquals(Fen.parse("r3k2r/8/8/8/8/8/8/R4RK1 b kq - 1 1").getPositionKey(), game.getPositionKey(),
+                "Key after castling should match a fresh position");
+        game.unmakeMove();
+        Assertions.assertEquals(start, game.getPositionKey(), "Unmaking castling should restore the key");
+    }
+
+    @Test
+    @DisplayName("En Passant Square Changes The Key")
+    public void enPassant() throws InvalidMoveException {
+        // black can take e3 en passant only when the d4 pawn is there
+        ChessGame capturable = Fen.parse("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+        capturable.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessGame noEnPassant = Fen.parse("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1");
+        Assertions.assertNotEquals(noEnPassant.getPositionKey(), capturable.getPositionKey(),
+                "An en passant square a pawn can capture onto should change the key");
+        Assertions.assertEquals(Fen.parse("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1").getPositionKey(), capturable.getPositionKey(),
+                "Key kept up after the double step should equal the key computed from scratch");
+
+        // with no black pawn beside it, the double step leaves no en passant square
+        ChessGame uncapturable = Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        uncapturable.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(Fen.parse("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1").getPositionKey(), uncapturable.getPositionKey(),
+                "An en passant square nobody can use should not change the key");
+
+        // taking en passant removes the pawn beside, and unmaking puts it back
+        long before = capturable.getPositionKey();
+        capturable.makeMove(new ChessMove(new ChessPosition(4, 4), new ChessPosition(3, 5), null));
+        Assertions.assertEquals(Fen.parse("4k3/8/8/8/8/4p3/8/4K3 w - - 0 2").getPositionKey(), capturable.getPositionKey());
+        capturable.unmakeMove();
+        Assertions.assertEquals(before, capturable.getPositionKey(), "Unmaking en passant should restore the key");
+    }
+
+    @Test
+    @DisplayName("Transpositions Have Equal Keys")
+    public void transpositions() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        first.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        second.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        second.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        second.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        Assertions.assertEquals(first.getPositionKey(), second.getPositionKey(), "Same position by another order");
+        Assertions.assertEquals(first.getBoard().getZobristKey(), second.getBoard().getZobristKey());
+
+        // the same pieces with the other side to move are a different position
+        ChessGame otherSide = Fen.parse(Fen.toFen(first).replace(" w ", " b "));
+        Assertions.assertEquals(first.getBoard().getZobristKey(), otherSide.getBoard().getZobristKey(), "Same pieces");
+        Assertions.assertNotEquals(first.getPositionKey(), otherSide.getPositionKey(), "Side to move should change the key");
+    }
+}
@@ -0,0 +1,114 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EngineTests {
+
+    // long enough that only the depth limit ends a search
+    private static final long NO_TIME_LIMIT = 600_000;
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void mateInOne() {
+        // scholar's mate: Qxf7#
+        ChessGame game = Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        SearchResult result = new Engine().search(game, NO_TIME_LIMIT, 3);
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(5, 8), new ChessPosition(7, 6), null),
+                result.getBestMove(), "Engine should play the mate");
+        Assertions.assertTrue(result.isMate(), "Score should be a mate");
+        Assertions.assertEquals(Engine.MATE - 1, result.getScore(), "Mate should be one ply away");
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    public void mateInTwo() {
+        // 1. Nf6+ gxf6 2. Bxf7#
+        ChessGame game = Fen.parse("r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - 1 10");
+        SearchResult result = new Engine().search(game, NO_TIME_LIMIT, 5);
+
+        Assertions.assertEquals(Engine.MATE - 3, result.getScore(), "Should find mate in three plies");
+        Assertions.assertEquals(new ChessMove(new ChessPosition(5, 4), new ChessPosition(6, 6), null),
+                result.getBestMove(), "Engine should start with the knight check");
+    }
+
+    @Test
+    @DisplayName("Takes A Free Queen")
+    public void winsMaterial() {
+        ChessGame game = Fen.parse("rnb1kbnr/pppp1ppp/8/4p1q1/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        SearchResult result = new Engine().search(game, NO_TIME_LIMIT, 4);
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(3, 6), new ChessPosition(5, 7), null),
+                result.getBestMove(), "Knight should take the queen");
+        Assertions.assertEquals(4, result.getDepth(), "Search should stop at the depth limit");
+    }
+
+    @Test
+    @DisplayName("Respects The Time Budget")
+    public void timeBudget() {
+        ChessGame game = new ChessGame();
+        long start = System.nanoTime();
+        SearchResult result = new Engine().search(game, 200);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        // the search only has to stop, not stop on time: a loaded machine can stall it for a while
+        Assertions.assertTrue(elapsed < 5000, "Search took " + elapsed + "ms on a 200ms budget");
+        Assertions.assertTrue(game.validMoves(result.getBestMove().getStartPosition()).contains(result.getBestMove()),
+                "Best move should be legal");
+        Assertions.assertEquals(new ChessGame(), game, "Search should not change the game");
+    }
+
+    @Test
+    @DisplayName("Helper Threads Find The Same Mate")
+    public void lazySmp() {
+        ChessGame game = Fen.parse("r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - 1 10");
+        Engine engine = new Engine(Engine.DEFAULT_TABLE_SIZE, 4);
+        SearchResult result = engine.search(game, NO_TIME_LIMIT, 5);
+
+        Assertions.assertEquals(Engine.MATE - 3, result.getScore(), "Should find mate in three plies");
+        Assertions.assertEquals(new ChessMove(new ChessPosition(5, 4), new ChessPosition(6, 6), null),
+                result.getBestMove(), "Engine should start with the knight check");
+
+        // the helpers must stop with the main search and leave the game alone
+        ChessGame start = new ChessGame();
+        result = engine.search(start, NO_TIME_LIMIT, 4);
+        Assertions.assertTrue(start.validMoves(result.getBestMove().getStartPosition()).contains(result.getBestMove()),
+                "Best move should be legal");
+        Assertions.assertEquals(new ChessGame(), start, "Search should not change the game");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Engine(1024, 0));
+    }
+
+    @Test
+    @DisplayName("Table Entries Check Their Key")
+    public void tableKeyCheck() {
+        TranspositionTable table = new TranspositionTable(16);
+        long key = 0x123456789ABCDEF0L;
+        table.store(key, 77, -250, 6, TranspositionTable.LOWER);
+        long entry = table.probe(key);
+        Assertions.assertEquals(77, TranspositionTable.move(entry));
+        Assertions.assertEquals(-250, TranspositionTable.score(entry));
+        Assertions.assertEquals(6, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+
+        // same slot, different position
+        Assertions.assertEquals(0L, table.probe(key + 16), "Another key should miss");
+        table.store(key + 16, 12, 30, 2, TranspositionTable.EXACT);
+        Assertions.assertEquals(0L, table.probe(key), "Replaced entry should miss");
+    }
+
+    @Test
+    @DisplayName("No Move When The Game Is Over")
+    public void gameOver() {
+        ChessGame game = Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = new Engine().search(game, 100);
+
+        Assertions.assertNull(result.getBestMove(), "Stalemated side has no move");
+        Assertions.assertEquals(0, result.getScore(), "Stalemate is a draw");
+    }
+}